@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+#
+# Load test: builds the application with the load-test Maven profile and runs it with the load-test Spring
+# profile, on H2 and the in-JVM Kafka stand-in, so nothing from docker-compose.yml is needed. Once ready it
+# drives an open-model workload (constant arrival rate, mixed saga, product and query requests) against
+# itself, writes target/load-test/report.json and exits.
+#
+# Exit status: 0 within the baseline (load-test/baseline.json), 1 on a regression, 2 if the run failed.
+# Latencies are compared in absolute milliseconds: record the baseline with --update-baseline on the host
+# the checks run on (the CI runner).
+#
+# Usage: scripts/load-test.sh [--update-baseline] [--skip-build] [application arguments...]
+#   e.g. scripts/load-test.sh --loadtest.arrival-rate=100 --loadtest.duration=2m
+#
+# Author: Shivam Srivastav
+
+set -euo pipefail
+
+UPDATE_BASELINE=false
+SKIP_BUILD=false
+while [[ $# -gt 0 ]]; do
+    case $1 in
+        --update-baseline) UPDATE_BASELINE=true; shift ;;
+        --skip-build) SKIP_BUILD=true; shift ;;
+        *) break ;;
+    esac
+done
+PORT=${PORT:-8082}
+JAVA_OPTS=${JAVA_OPTS:--Xms1g -Xmx1g}
+
+cd "$(dirname "$0")/.."
+if [[ $SKIP_BUILD != true ]]; then
+    mvn -B -q clean -Pload-test package -DskipTests
+fi
+JAR=$(ls target/*.jar | grep -v '\.original$' | head -1)
+
+status=0
+# shellcheck disable=SC2086
+java $JAVA_OPTS -jar "$JAR" --spring.profiles.active=load-test --server.port="$PORT" \
+    --loadtest.baseline.update="$UPDATE_BASELINE" "$@" || status=$?
+
+if [[ -f target/load-test/report.json ]]; then
+    echo "Report: target/load-test/report.json"
+fi
+case $status in
+    0) echo "Load test passed" ;;
+    1) echo "Load test regressed against load-test/baseline.json" >&2 ;;
+    *) echo "Load test did not complete (exit status $status)" >&2 ;;
+esac
+exit "$status"
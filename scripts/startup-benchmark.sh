@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: cold-starts the application RUNS times per variant and reports
+# time-to-ready (launch until /actuator/health is UP) and first-request latency.
+#
+#   baseline      java -jar target/<app>.jar
+#   fast-startup  AOT + CDS archive + lazy initialization, from target/fast-startup
+#
+# Build first with: mvn clean -Pfast-startup package
+# Needs the infrastructure from docker-compose.yml. Extra application arguments can be passed in APP_ARGS.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#
+# Author: Shivam Srivastav
+
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8082}
+FIRST_REQUEST=${FIRST_REQUEST:-/api/cqrs/queries/products}
+APP_ARGS=${APP_ARGS:-}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/*.jar | grep -v '\.original$' | head -1)
+FAST_DIR=target/fast-startup
+FAST_JAR=$FAST_DIR/$(basename "$JAR")
+
+if [[ ! -f $FAST_DIR/application.jsa ]]; then
+    echo "No CDS archive in $FAST_DIR; build with: mvn clean -Pfast-startup package" >&2
+    exit 1
+fi
+
+now_ms() { date +%s%3N; }
+
+# Starts one variant, waits until ready, times the first request, stops it. Prints "<ready ms> <first request ms>".
+measure() {
+    local dir=$1; shift
+    local start pid ready first
+    start=$(now_ms)
+    (cd "$dir" && exec java "$@" --server.port="$PORT" $APP_ARGS > /dev/null 2>&1) &
+    pid=$!
+
+    until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health"; do
+        if ! kill -0 "$pid" 2> /dev/null || (( $(now_ms) - start > TIMEOUT_SECONDS * 1000 )); then
+            echo "Application did not become ready" >&2
+            kill -9 "$pid" 2> /dev/null || true
+            exit 1
+        fi
+        sleep 0.05
+    done
+    ready=$(( $(now_ms) - start ))
+    first=$(curl -s -o /dev/null -w '%{time_total}' "http://localhost:$PORT$FIRST_REQUEST")
+
+    kill "$pid" && wait "$pid" 2> /dev/null || true
+    echo "$ready $(awk -v t="$first" 'BEGIN { printf "%d", t * 1000 }')"
+}
+
+# Prints "median min max" of the numbers on stdin.
+stats() {
+    sort -n | awk '{ v[NR] = $1 } END { printf "%6d %6d %6d", v[int((NR + 1) / 2)], v[1], v[NR] }'
+}
+
+run_variant() {
+    local name=$1; shift
+    local results=()
+    for ((i = 1; i <= RUNS; i++)); do
+        results+=("$(measure "$@")")
+    done
+    printf '%-13s ready ms (median/min/max): %s   first request ms: %s\n' "$name" \
+        "$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | stats)" \
+        "$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | stats)"
+}
+
+echo "Startup benchmark: $RUNS runs per variant, first request GET $FIRST_REQUEST"
+run_variant baseline . -jar "$JAR"
+run_variant fast-startup "$FAST_DIR" -XX:SharedArchiveFile=application.jsa -Xlog:cds=off -Dspring.aot.enabled=true \
+    -jar "$(basename "$FAST_JAR")" --spring.profiles.active=fast-startup
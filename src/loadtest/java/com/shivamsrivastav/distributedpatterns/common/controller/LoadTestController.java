@@ -0,0 +1,60 @@
+package com.shivamsrivastav.distributedpatterns.common.controller;
+
+import com.shivamsrivastav.distributedpatterns.common.loadtest.LoadTestBaseline;
+import com.shivamsrivastav.distributedpatterns.common.loadtest.LoadTestProperties;
+import com.shivamsrivastav.distributedpatterns.common.loadtest.LoadTestReport;
+import com.shivamsrivastav.distributedpatterns.common.loadtest.OpenModelLoadTest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Runs the open-model load test against this instance on demand.
+ * <p>
+ * Only exposed when the application runs on the in-JVM broker stand-in
+ * ({@code loadtest.in-memory-broker=true}, as in the {@code load-test}
+ * profile), so a deployed instance cannot be made to load itself, and the
+ * arrival rate is capped at {@code loadtest.max-arrival-rate}.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@RestController
+@ConditionalOnProperty(prefix = "loadtest", name = "in-memory-broker", havingValue = "true")
+@RequestMapping("/api/load-test")
+public class LoadTestController {
+
+    private final OpenModelLoadTest loadTest;
+    private final LoadTestBaseline baseline;
+    private final LoadTestProperties properties;
+
+    public LoadTestController(OpenModelLoadTest loadTest, LoadTestBaseline baseline,
+            LoadTestProperties properties) {
+        this.loadTest = loadTest;
+        this.baseline = baseline;
+        this.properties = properties;
+    }
+
+    /**
+     * Runs the mix from {@code loadtest.mix} and returns p50/p99/p999 latency
+     * and throughput per scenario, with any regressions against the baseline.
+     * Blocks for the warmup plus the duration (ISO-8601, e.g. PT30S). The
+     * arrival rate is capped at {@code loadtest.max-arrival-rate}.
+     */
+    @PostMapping("/run")
+    public ResponseEntity<LoadTestReport> run(@RequestParam(required = false) Double arrivalRate,
+            @RequestParam(required = false) Duration duration, @RequestParam(required = false) Duration warmup)
+            throws InterruptedException {
+        double rate = Math.min(arrivalRate != null ? arrivalRate : properties.getArrivalRate(),
+                properties.getMaxArrivalRate());
+        LoadTestReport report = loadTest.run(rate,
+                duration != null ? duration : properties.getDuration(),
+                warmup != null ? warmup : properties.getWarmup());
+        return ResponseEntity.ok(baseline.checkAndRecord(report));
+    }
+}
@@ -0,0 +1,200 @@
+package com.shivamsrivastav.distributedpatterns.common.loadtest;
+
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.record.TimestampType;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.mock.MockConsumerFactory;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-JVM stand-in for the Kafka cluster, so the outbox relay and the Kafka
+ * listeners run end to end without a broker.
+ * <p>
+ * Every topic has a single partition. A sent record is appended with the
+ * next offset and handed to every consumer subscribed to its topic; records
+ * sent before anyone subscribed are kept until the first consumer does.
+ * There are no consumer groups, retention or transactions: every listener
+ * sees a topic as if it were alone in its group, which is how the
+ * {@code saga-group} and analytics listeners of one instance read
+ * {@code orders} anyway, and the relay must run in {@code SIMPLE} mode.
+ * </p>
+ * <p>
+ * The clients are the kafka-clients mocks: sends complete synchronously, and
+ * a consumer blocks in {@code poll} until a record arrives or the poll
+ * timeout passes, like a real one, instead of spinning.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class InMemoryKafkaBroker {
+
+    private static final int PARTITION = 0;
+
+    private final BrokerProducer producer = new BrokerProducer();
+    private final Map<String, Long> nextOffsets = new HashMap<>();
+    private final Map<String, List<BrokerConsumer>> subscribers = new HashMap<>();
+    private final Map<String, List<ConsumerRecord<Object, Object>>> undelivered = new HashMap<>();
+
+    public ProducerFactory<Object, Object> producerFactory() {
+        return new MockProducerFactory<>(() -> producer);
+    }
+
+    public ConsumerFactory<Object, Object> consumerFactory() {
+        return new MockConsumerFactory<>(BrokerConsumer::new);
+    }
+
+    private synchronized RecordMetadata append(ProducerRecord<Object, Object> record) {
+        String topic = record.topic();
+        long offset = nextOffsets.merge(topic, 1L, Long::sum) - 1;
+        long timestamp = record.timestamp() != null ? record.timestamp() : System.currentTimeMillis();
+        ConsumerRecord<Object, Object> consumed = new ConsumerRecord<>(topic, PARTITION, offset, timestamp,
+                TimestampType.CREATE_TIME, -1, -1, record.key(), record.value(), record.headers(), Optional.empty());
+
+        List<BrokerConsumer> consumers = subscribers.get(topic);
+        if (consumers == null || consumers.isEmpty()) {
+            undelivered.computeIfAbsent(topic, t -> new ArrayList<>()).add(consumed);
+        } else {
+            consumers.forEach(consumer -> consumer.deliver(consumed));
+        }
+        return new RecordMetadata(new TopicPartition(topic, PARTITION), offset, 0, timestamp, -1, -1);
+    }
+
+    private synchronized void addSubscriber(String topic, BrokerConsumer consumer) {
+        subscribers.computeIfAbsent(topic, t -> new ArrayList<>()).add(consumer);
+        List<ConsumerRecord<Object, Object>> backlog = undelivered.remove(topic);
+        if (backlog != null) {
+            backlog.forEach(consumer::deliver);
+        }
+    }
+
+    private synchronized void removeSubscriber(BrokerConsumer consumer) {
+        subscribers.values().forEach(consumers -> consumers.remove(consumer));
+    }
+
+    /**
+     * Shared by every template; sends go straight to the log, so there is
+     * nothing to flush or close.
+     */
+    private final class BrokerProducer extends MockProducer<Object, Object> {
+
+        @Override
+        public Future<RecordMetadata> send(ProducerRecord<Object, Object> record, Callback callback) {
+            RecordMetadata metadata = append(record);
+            if (callback != null) {
+                callback.onCompletion(metadata, null);
+            }
+            return CompletableFuture.completedFuture(metadata);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(Duration timeout) {
+        }
+    }
+
+    /**
+     * Joins the broker on the first poll after subscribing. Records arrive in
+     * an inbox and are moved into the mock consumer by the polling thread, so
+     * the broker never waits for a consumer's lock while holding its own.
+     */
+    private final class BrokerConsumer extends MockConsumer<Object, Object> {
+
+        private final Queue<ConsumerRecord<Object, Object>> inbox = new ConcurrentLinkedQueue<>();
+        private final Semaphore arrivals = new Semaphore(0);
+        private volatile Collection<String> topicsToJoin;
+
+        BrokerConsumer() {
+            super(OffsetResetStrategy.EARLIEST);
+        }
+
+        @Override
+        public void subscribe(Collection<String> topics, ConsumerRebalanceListener listener) {
+            super.subscribe(topics, listener);
+            topicsToJoin = new ArrayList<>(topics);
+        }
+
+        @Override
+        public ConsumerRecords<Object, Object> poll(Duration timeout) {
+            Collection<String> topics = topicsToJoin;
+            if (topics != null) {
+                topicsToJoin = null;
+                join(topics);
+            }
+            ConsumerRecord<Object, Object> record;
+            while ((record = inbox.poll()) != null) {
+                addRecord(record);
+            }
+
+            ConsumerRecords<Object, Object> records = super.poll(timeout);
+            if (records.isEmpty() && inbox.isEmpty()) {
+                try {
+                    arrivals.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                arrivals.drainPermits();
+            }
+            return records;
+        }
+
+        private void join(Collection<String> topics) {
+            List<TopicPartition> partitions = topics.stream().map(topic -> new TopicPartition(topic, PARTITION))
+                    .toList();
+            Map<TopicPartition, Long> beginning = new HashMap<>();
+            partitions.forEach(partition -> beginning.put(partition, 0L));
+            updateBeginningOffsets(beginning);
+            rebalance(partitions);
+            topics.forEach(topic -> addSubscriber(topic, this));
+        }
+
+        void deliver(ConsumerRecord<Object, Object> record) {
+            inbox.add(record);
+            arrivals.release();
+        }
+
+        @Override
+        public void wakeup() {
+            super.wakeup();
+            arrivals.release();
+        }
+
+        @Override
+        public void close() {
+            removeSubscriber(this);
+            super.close();
+        }
+
+        @Override
+        public void close(Duration timeout) {
+            removeSubscriber(this);
+            super.close(timeout);
+        }
+    }
+}
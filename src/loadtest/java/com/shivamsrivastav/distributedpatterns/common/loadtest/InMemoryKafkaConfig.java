@@ -0,0 +1,34 @@
+package com.shivamsrivastav.distributedpatterns.common.loadtest;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+
+/**
+ * Points the auto-configured {@code KafkaTemplate} and listener containers at
+ * the {@link InMemoryKafkaBroker} ({@code loadtest.in-memory-broker=true}),
+ * used by the {@code load-test} profile.
+ *
+ * @author Shivam Srivastav
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "loadtest", name = "in-memory-broker", havingValue = "true")
+public class InMemoryKafkaConfig {
+
+    @Bean
+    public InMemoryKafkaBroker inMemoryKafkaBroker() {
+        return new InMemoryKafkaBroker();
+    }
+
+    @Bean
+    public ProducerFactory<Object, Object> kafkaProducerFactory(InMemoryKafkaBroker broker) {
+        return broker.producerFactory();
+    }
+
+    @Bean
+    public ConsumerFactory<Object, Object> kafkaConsumerFactory(InMemoryKafkaBroker broker) {
+        return broker.consumerFactory();
+    }
+}
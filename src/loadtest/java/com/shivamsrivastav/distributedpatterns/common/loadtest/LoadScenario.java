@@ -0,0 +1,37 @@
+package com.shivamsrivastav.distributedpatterns.common.loadtest;
+
+/**
+ * The kinds of request an open-model load test mixes, each hitting one REST
+ * endpoint the way a client would.
+ *
+ * @author Shivam Srivastav
+ */
+public enum LoadScenario {
+
+    /**
+     * {@code POST /api/saga/orders}: a full saga, mostly for in-stock products.
+     */
+    CREATE_ORDER,
+
+    /**
+     * {@code POST /api/cqrs/commands/products} or a price change of a seeded
+     * product.
+     */
+    PRODUCT_COMMAND,
+
+    /**
+     * {@code GET /api/cqrs/queries/products/{id}} of a seeded product.
+     */
+    PRODUCT_QUERY,
+
+    /**
+     * {@code GET /api/analytics/orders}.
+     */
+    ORDER_ANALYTICS,
+
+    /**
+     * {@code GET /api/resilience/payment}, the fault-injected provider behind
+     * circuit breaker and retry.
+     */
+    RESILIENT_PAYMENT
+}
@@ -0,0 +1,138 @@
+package com.shivamsrivastav.distributedpatterns.common.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores load test reports and checks new ones against the stored baseline.
+ * <p>
+ * A run regresses when, for a scenario in the baseline, p50, p99 or p999
+ * latency grew by more than {@code loadtest.baseline.latency-tolerance} and
+ * by more than {@code latency-slack-millis}, or its error rate grew by more
+ * than {@code error-rate-tolerance}. A percentile is only checked when the
+ * scenario had enough requests for it (500 for p99, 5000 for p999).
+ * Percentiles only compare at the same load, so a run at a different arrival
+ * rate fails the check too.
+ * </p>
+ * <p>
+ * Latencies are compared in absolute milliseconds, so the baseline only
+ * means something on the host that recorded it: record it on the CI runner
+ * that runs the check ({@code scripts/load-test.sh --update-baseline}).
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+public class LoadTestBaseline {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestBaseline.class);
+
+    /**
+     * Requests a percentile needs beyond it to be checked: p999 of a few
+     * hundred requests is just the slowest one, and varies as much.
+     */
+    private static final int TAIL_SAMPLES = 5;
+
+    private final ObjectMapper objectMapper;
+    private final LoadTestProperties.Baseline properties;
+
+    public LoadTestBaseline(ObjectMapper objectMapper, LoadTestProperties properties) {
+        this.objectMapper = objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT);
+        this.properties = properties.getBaseline();
+    }
+
+    /**
+     * Checks the report against the baseline, or replaces the baseline with it
+     * when {@code loadtest.baseline.update} is set, and writes the report file.
+     * Regressions are added to the report.
+     */
+    public LoadTestReport checkAndRecord(LoadTestReport report) {
+        Path baselineFile = Path.of(properties.getFile());
+        if (properties.isUpdate()) {
+            write(report, baselineFile);
+            log.info("Load test baseline {} updated", baselineFile);
+        } else if (Files.exists(baselineFile)) {
+            report.setRegressions(check(report, read(baselineFile)));
+        } else {
+            log.warn("No load test baseline at {}; run with loadtest.baseline.update=true to record one",
+                    baselineFile);
+        }
+        write(report, Path.of(properties.getReportFile()));
+        return report;
+    }
+
+    /**
+     * @return One message per regression, empty if the report is within the
+     *         tolerances of the baseline
+     */
+    public List<String> check(LoadTestReport report, LoadTestReport baseline) {
+        List<String> regressions = new ArrayList<>();
+        if (Double.compare(report.getArrivalRate(), baseline.getArrivalRate()) != 0) {
+            regressions.add("Run at " + report.getArrivalRate() + " requests/s, baseline recorded at "
+                    + baseline.getArrivalRate() + " requests/s");
+            return regressions;
+        }
+        for (Map.Entry<LoadScenario, LoadTestReport.ScenarioReport> entry : baseline.getScenarios().entrySet()) {
+            LoadTestReport.ScenarioReport expected = entry.getValue();
+            LoadTestReport.ScenarioReport actual = report.getScenarios().get(entry.getKey());
+            if (actual == null) {
+                continue;
+            }
+            String scenario = entry.getKey().name();
+            long requests = actual.getRequests();
+            checkLatency(regressions, scenario, "p50", 0.5, requests, actual.getP50Millis(),
+                    expected.getP50Millis());
+            checkLatency(regressions, scenario, "p99", 0.99, requests, actual.getP99Millis(),
+                    expected.getP99Millis());
+            checkLatency(regressions, scenario, "p999", 0.999, requests, actual.getP999Millis(),
+                    expected.getP999Millis());
+            if (actual.getErrorRate() > expected.getErrorRate() + properties.getErrorRateTolerance()) {
+                regressions.add(String.format("%s error rate %.3f, baseline %.3f", scenario, actual.getErrorRate(),
+                        expected.getErrorRate()));
+            }
+        }
+        return regressions;
+    }
+
+    private void checkLatency(List<String> regressions, String scenario, String percentile, double quantile,
+            long requests, double actual, double expected) {
+        if (requests * (1 - quantile) < TAIL_SAMPLES) {
+            return;
+        }
+        if (actual > expected * (1 + properties.getLatencyTolerance())
+                && actual - expected > properties.getLatencySlackMillis()) {
+            regressions.add(String.format("%s %s %.1f ms, baseline %.1f ms", scenario, percentile, actual,
+                    expected));
+        }
+    }
+
+    private LoadTestReport read(Path file) {
+        try {
+            return objectMapper.readValue(file.toFile(), LoadTestReport.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read load test baseline " + file, e);
+        }
+    }
+
+    private void write(LoadTestReport report, Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            objectMapper.writeValue(file.toFile(), report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write load test report " + file, e);
+        }
+    }
+}
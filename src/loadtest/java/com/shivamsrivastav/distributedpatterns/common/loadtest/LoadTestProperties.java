@@ -0,0 +1,238 @@
+package com.shivamsrivastav.distributedpatterns.common.loadtest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Workload, baseline and regression thresholds of the open-model load test.
+ *
+ * @author Shivam Srivastav
+ */
+@ConfigurationProperties(prefix = "loadtest")
+public class LoadTestProperties {
+
+    /**
+     * Requests started per second, whatever the response times are.
+     */
+    private double arrivalRate = 50;
+
+    /**
+     * Highest arrival rate {@code POST /api/load-test/run} accepts; higher
+     * requests are capped to it.
+     */
+    private double maxArrivalRate = 500;
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    /**
+     * Run at the full rate before measuring, so JIT, pools and caches are warm.
+     */
+    private Duration warmup = Duration.ofSeconds(15);
+
+    /**
+     * Requests allowed in flight; arrivals beyond it are counted as dropped
+     * rather than delayed, which would hide the overload.
+     */
+    private int maxInFlight = 1000;
+
+    /**
+     * Relative weight of each scenario in the request mix.
+     */
+    private Map<LoadScenario, Integer> mix = defaultMix();
+
+    /**
+     * Products created before the run for the product commands and queries.
+     */
+    private int seedProducts = 50;
+
+    /**
+     * Run once the application is ready, write the report, check it against
+     * the baseline and exit with status 1 on a regression.
+     */
+    private boolean runOnStartup = false;
+
+    /**
+     * Replace the Kafka client with the in-JVM broker stand-in.
+     */
+    private boolean inMemoryBroker = false;
+
+    private Baseline baseline = new Baseline();
+
+    private static Map<LoadScenario, Integer> defaultMix() {
+        Map<LoadScenario, Integer> mix = new EnumMap<>(LoadScenario.class);
+        mix.put(LoadScenario.CREATE_ORDER, 30);
+        mix.put(LoadScenario.PRODUCT_COMMAND, 15);
+        mix.put(LoadScenario.PRODUCT_QUERY, 45);
+        mix.put(LoadScenario.ORDER_ANALYTICS, 5);
+        mix.put(LoadScenario.RESILIENT_PAYMENT, 5);
+        return mix;
+    }
+
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public void setArrivalRate(double arrivalRate) {
+        this.arrivalRate = arrivalRate;
+    }
+
+    public double getMaxArrivalRate() {
+        return maxArrivalRate;
+    }
+
+    public void setMaxArrivalRate(double maxArrivalRate) {
+        this.maxArrivalRate = maxArrivalRate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(Duration warmup) {
+        this.warmup = warmup;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Map<LoadScenario, Integer> getMix() {
+        return mix;
+    }
+
+    public void setMix(Map<LoadScenario, Integer> mix) {
+        this.mix = mix;
+    }
+
+    public int getSeedProducts() {
+        return seedProducts;
+    }
+
+    public void setSeedProducts(int seedProducts) {
+        this.seedProducts = seedProducts;
+    }
+
+    public boolean isRunOnStartup() {
+        return runOnStartup;
+    }
+
+    public void setRunOnStartup(boolean runOnStartup) {
+        this.runOnStartup = runOnStartup;
+    }
+
+    public boolean isInMemoryBroker() {
+        return inMemoryBroker;
+    }
+
+    public void setInMemoryBroker(boolean inMemoryBroker) {
+        this.inMemoryBroker = inMemoryBroker;
+    }
+
+    public Baseline getBaseline() {
+        return baseline;
+    }
+
+    public void setBaseline(Baseline baseline) {
+        this.baseline = baseline;
+    }
+
+    /**
+     * Where reports go and how far a run may fall behind the stored baseline.
+     */
+    public static class Baseline {
+
+        /**
+         * Stored report the runs are checked against.
+         */
+        private String file = "load-test/baseline.json";
+
+        /**
+         * Where the report of the last run is written.
+         */
+        private String reportFile = "target/load-test/report.json";
+
+        /**
+         * Overwrite the baseline with this run's report instead of checking it.
+         */
+        private boolean update = false;
+
+        /**
+         * Allowed relative growth of p50, p99 and p999 latency.
+         */
+        private double latencyTolerance = 0.5;
+
+        /**
+         * Latency growth below this many milliseconds is never a regression;
+         * sub-millisecond percentiles vary by more than any ratio between runs.
+         */
+        private double latencySlackMillis = 5;
+
+        /**
+         * Allowed absolute growth of the error rate (0.01 = one point).
+         */
+        private double errorRateTolerance = 0.01;
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public String getReportFile() {
+            return reportFile;
+        }
+
+        public void setReportFile(String reportFile) {
+            this.reportFile = reportFile;
+        }
+
+        public boolean isUpdate() {
+            return update;
+        }
+
+        public void setUpdate(boolean update) {
+            this.update = update;
+        }
+
+        public double getLatencyTolerance() {
+            return latencyTolerance;
+        }
+
+        public void setLatencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+        }
+
+        public double getLatencySlackMillis() {
+            return latencySlackMillis;
+        }
+
+        public void setLatencySlackMillis(double latencySlackMillis) {
+            this.latencySlackMillis = latencySlackMillis;
+        }
+
+        public double getErrorRateTolerance() {
+            return errorRateTolerance;
+        }
+
+        public void setErrorRateTolerance(double errorRateTolerance) {
+            this.errorRateTolerance = errorRateTolerance;
+        }
+    }
+}
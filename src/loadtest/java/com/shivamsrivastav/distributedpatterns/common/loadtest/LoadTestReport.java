@@ -0,0 +1,205 @@
+package com.shivamsrivastav.distributedpatterns.common.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one open-model load test run: latency percentiles and throughput
+ * per scenario. The stored baseline is a report of an earlier run.
+ * <p>
+ * Latency is measured from the moment a request was scheduled to start, not
+ * from when it was sent, so a stalled client or server shows up in the
+ * percentiles instead of silently lowering the request rate.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class LoadTestReport {
+
+    private double arrivalRate;
+    private double durationSeconds;
+    private long requests;
+    private long errors;
+    private long dropped;
+    private double throughputPerSecond;
+    private Map<LoadScenario, ScenarioReport> scenarios = new EnumMap<>(LoadScenario.class);
+
+    /**
+     * Baseline violations; empty when the run was not checked or passed.
+     */
+    private List<String> regressions = new ArrayList<>();
+
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public void setArrivalRate(double arrivalRate) {
+        this.arrivalRate = arrivalRate;
+    }
+
+    public double getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(double durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public void setErrors(long errors) {
+        this.errors = errors;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(long dropped) {
+        this.dropped = dropped;
+    }
+
+    public double getThroughputPerSecond() {
+        return throughputPerSecond;
+    }
+
+    public void setThroughputPerSecond(double throughputPerSecond) {
+        this.throughputPerSecond = throughputPerSecond;
+    }
+
+    public Map<LoadScenario, ScenarioReport> getScenarios() {
+        return scenarios;
+    }
+
+    public void setScenarios(Map<LoadScenario, ScenarioReport> scenarios) {
+        this.scenarios = scenarios;
+    }
+
+    public List<String> getRegressions() {
+        return regressions;
+    }
+
+    public void setRegressions(List<String> regressions) {
+        this.regressions = regressions;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadTestReport{" +
+                "arrivalRate=" + arrivalRate +
+                ", durationSeconds=" + durationSeconds +
+                ", requests=" + requests +
+                ", errors=" + errors +
+                ", dropped=" + dropped +
+                ", throughputPerSecond=" + throughputPerSecond +
+                ", scenarios=" + scenarios +
+                ", regressions=" + regressions +
+                '}';
+    }
+
+    /**
+     * Measurements of one scenario. Errors are transport failures and 5xx
+     * responses; dropped requests were never sent because too many were in
+     * flight, and count as errors too.
+     */
+    public static class ScenarioReport {
+
+        private long requests;
+        private long errors;
+        private double errorRate;
+        private double throughputPerSecond;
+        private double p50Millis;
+        private double p99Millis;
+        private double p999Millis;
+        private double maxMillis;
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public void setRequests(long requests) {
+            this.requests = requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public void setErrors(long errors) {
+            this.errors = errors;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        public double getThroughputPerSecond() {
+            return throughputPerSecond;
+        }
+
+        public void setThroughputPerSecond(double throughputPerSecond) {
+            this.throughputPerSecond = throughputPerSecond;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public void setP50Millis(double p50Millis) {
+            this.p50Millis = p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public void setP99Millis(double p99Millis) {
+            this.p99Millis = p99Millis;
+        }
+
+        public double getP999Millis() {
+            return p999Millis;
+        }
+
+        public void setP999Millis(double p999Millis) {
+            this.p999Millis = p999Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        public void setMaxMillis(double maxMillis) {
+            this.maxMillis = maxMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "ScenarioReport{" +
+                    "requests=" + requests +
+                    ", errors=" + errors +
+                    ", throughputPerSecond=" + throughputPerSecond +
+                    ", p50Millis=" + p50Millis +
+                    ", p99Millis=" + p99Millis +
+                    ", p999Millis=" + p999Millis +
+                    ", maxMillis=" + maxMillis +
+                    '}';
+        }
+    }
+}
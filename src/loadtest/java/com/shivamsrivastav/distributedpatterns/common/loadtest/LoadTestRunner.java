@@ -0,0 +1,55 @@
+package com.shivamsrivastav.distributedpatterns.common.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the load test once the application is ready and exits with its
+ * verdict: 0 when it is within the baseline, 1 on a regression, 2 if it could
+ * not run. This is what {@code scripts/load-test.sh} and a CI job rely on.
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@ConditionalOnProperty(prefix = "loadtest", name = "run-on-startup", havingValue = "true")
+public class LoadTestRunner implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final OpenModelLoadTest loadTest;
+    private final LoadTestBaseline baseline;
+
+    public LoadTestRunner(OpenModelLoadTest loadTest, LoadTestBaseline baseline) {
+        this.loadTest = loadTest;
+        this.baseline = baseline;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        int exitCode;
+        try {
+            LoadTestReport report = baseline.checkAndRecord(loadTest.run());
+            if (report.getRegressions().isEmpty()) {
+                log.info("Load test passed");
+                exitCode = 0;
+            } else {
+                report.getRegressions().forEach(regression -> log.error("Load test regression: {}", regression));
+                exitCode = 1;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Load test interrupted");
+            exitCode = 2;
+        } catch (RuntimeException e) {
+            log.error("Load test failed to run", e);
+            exitCode = 2;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(event.getApplicationContext(), () -> status));
+    }
+}
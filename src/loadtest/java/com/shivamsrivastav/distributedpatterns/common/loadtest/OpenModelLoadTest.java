@@ -0,0 +1,350 @@
+package com.shivamsrivastav.distributedpatterns.common.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load test of the REST API: requests are started at a constant
+ * arrival rate, drawn from a weighted mix of {@link LoadScenario}s, no matter
+ * how long earlier ones take.
+ * <p>
+ * A closed model (N clients that each wait for their response) slows down
+ * with the server and so never shows what queueing does to latency; here a
+ * slow server means more requests in flight and higher percentiles. Latency
+ * is taken from each request's scheduled start, and arrivals beyond
+ * {@code loadtest.max-in-flight} are dropped and counted as errors rather
+ * than delayed.
+ * </p>
+ * <p>
+ * Requests go over HTTP to the running application, like
+ * {@code ResilienceLoadTest}. Products for the product scenarios are created
+ * first; everything the run creates is left in the database.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class OpenModelLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenModelLoadTest.class);
+
+    /**
+     * Share of orders for a product the inventory rejects, so compensation is
+     * part of the mix.
+     */
+    private static final double OUT_OF_STOCK_SHARE = 0.05;
+    private static final int CUSTOMERS = 1000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(1);
+
+    private final WebServerApplicationContext webServerContext;
+    private final ObjectMapper objectMapper;
+    private final LoadTestProperties properties;
+
+    public OpenModelLoadTest(WebServerApplicationContext webServerContext, ObjectMapper objectMapper,
+            LoadTestProperties properties) {
+        this.webServerContext = webServerContext;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Runs the configured workload.
+     */
+    public LoadTestReport run() throws InterruptedException {
+        return run(properties.getArrivalRate(), properties.getDuration(), properties.getWarmup());
+    }
+
+    /**
+     * @param arrivalRate Requests started per second
+     * @param duration    Measured part of the run
+     * @param warmup      Unmeasured part before it, at the same rate
+     */
+    public LoadTestReport run(double arrivalRate, Duration duration, Duration warmup) throws InterruptedException {
+        if (arrivalRate <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+        String baseUrl = "http://localhost:" + webServerContext.getWebServer().getPort();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Workload workload = new Workload(baseUrl, properties.getMix(), seedProducts(client, baseUrl));
+
+        Map<LoadScenario, LatencyRecorder> recorders = new EnumMap<>(LoadScenario.class);
+        for (LoadScenario scenario : LoadScenario.values()) {
+            recorders.put(scenario, new LatencyRecorder());
+        }
+
+        int maxInFlight = properties.getMaxInFlight();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / arrivalRate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        log.info("Load test: {} requests/s for {} after {} warmup", arrivalRate, duration, warmup);
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadScenario scenario = workload.nextScenario();
+            LatencyRecorder recorder = scheduled >= measureFrom ? recorders.get(scenario) : null;
+            if (!inFlight.tryAcquire()) {
+                if (recorder != null) {
+                    recorder.drop();
+                }
+                continue;
+            }
+            client.sendAsync(workload.request(scenario), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> {
+                        long latency = System.nanoTime() - scheduled;
+                        inFlight.release();
+                        if (recorder != null) {
+                            recorder.record(latency, ex != null || response.statusCode() >= 500);
+                        }
+                    });
+        }
+        if (inFlight.tryAcquire(maxInFlight, DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            inFlight.release(maxInFlight);
+        } else {
+            log.warn("Load test: requests still in flight after {}; they are left out of the report",
+                    DRAIN_TIMEOUT);
+        }
+
+        LoadTestReport report = report(arrivalRate, duration, recorders);
+        log.info("Load test: {}", report);
+        return report;
+    }
+
+    private List<Long> seedProducts(HttpClient client, String baseUrl) throws InterruptedException {
+        List<Long> ids = new ArrayList<>(properties.getSeedProducts());
+        for (int i = 0; i < properties.getSeedProducts(); i++) {
+            HttpRequest request = jsonRequest(baseUrl + "/api/cqrs/commands/products", "POST",
+                    newProduct("load-seed-" + i));
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Could not create load test products: HTTP "
+                            + response.statusCode());
+                }
+                ids.add(objectMapper.readTree(response.body()).get("id").asLong());
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create load test products", e);
+            }
+        }
+        return ids;
+    }
+
+    private LoadTestReport report(double arrivalRate, Duration duration,
+            Map<LoadScenario, LatencyRecorder> recorders) {
+        double seconds = duration.toMillis() / 1000.0;
+        LoadTestReport report = new LoadTestReport();
+        report.setArrivalRate(arrivalRate);
+        report.setDurationSeconds(seconds);
+        long completed = 0;
+        for (Map.Entry<LoadScenario, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            if (recorder.requests() == 0) {
+                continue;
+            }
+            long[] latencies = recorder.sortedLatencies();
+            LoadTestReport.ScenarioReport scenario = new LoadTestReport.ScenarioReport();
+            scenario.setRequests(recorder.requests());
+            scenario.setErrors(recorder.errors());
+            scenario.setErrorRate(round((double) recorder.errors() / recorder.requests()));
+            scenario.setThroughputPerSecond(round(latencies.length / seconds));
+            scenario.setP50Millis(percentileMillis(latencies, 0.50));
+            scenario.setP99Millis(percentileMillis(latencies, 0.99));
+            scenario.setP999Millis(percentileMillis(latencies, 0.999));
+            scenario.setMaxMillis(percentileMillis(latencies, 1.0));
+            report.getScenarios().put(entry.getKey(), scenario);
+
+            report.setRequests(report.getRequests() + recorder.requests());
+            report.setErrors(report.getErrors() + recorder.errors());
+            report.setDropped(report.getDropped() + recorder.dropped());
+            completed += latencies.length;
+        }
+        report.setThroughputPerSecond(round(completed / seconds));
+        return report;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private Map<String, Object> newProduct(String name) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Map.of("name", name, "description", "Created by the load test",
+                "price", BigDecimal.valueOf(random.nextInt(100, 100_000), 2), "stock", 1000);
+    }
+
+    private HttpRequest jsonRequest(String uri, String method, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(uri))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Draws scenarios by weight and builds their requests.
+     */
+    private final class Workload {
+
+        private final String baseUrl;
+        private final LoadScenario[] scenarios;
+        private final int[] cumulativeWeights;
+        private final List<Long> productIds;
+
+        Workload(String baseUrl, Map<LoadScenario, Integer> mix, List<Long> productIds) {
+            this.baseUrl = baseUrl;
+            this.productIds = productIds;
+            List<Map.Entry<LoadScenario, Integer>> weighted = mix.entrySet().stream()
+                    .filter(entry -> entry.getValue() != null && entry.getValue() > 0)
+                    .toList();
+            if (weighted.isEmpty()) {
+                throw new IllegalArgumentException("Load test mix has no scenario with a positive weight");
+            }
+            this.scenarios = new LoadScenario[weighted.size()];
+            this.cumulativeWeights = new int[weighted.size()];
+            int total = 0;
+            for (int i = 0; i < weighted.size(); i++) {
+                total += weighted.get(i).getValue();
+                scenarios[i] = weighted.get(i).getKey();
+                cumulativeWeights[i] = total;
+            }
+        }
+
+        LoadScenario nextScenario() {
+            int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = Arrays.binarySearch(cumulativeWeights, draw + 1);
+            return scenarios[index >= 0 ? index : -index - 1];
+        }
+
+        HttpRequest request(LoadScenario scenario) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            switch (scenario) {
+                case CREATE_ORDER:
+                    String productId = random.nextDouble() < OUT_OF_STOCK_SHARE ? "OUT_OF_STOCK"
+                            : "prod-" + random.nextInt(100);
+                    return jsonRequest(baseUrl + "/api/saga/orders", "POST",
+                            Map.of("customerId", "load-customer-" + random.nextInt(CUSTOMERS),
+                                    "productId", productId, "quantity", random.nextInt(1, 4),
+                                    "price", BigDecimal.valueOf(random.nextInt(100, 20_000), 2)));
+                case PRODUCT_COMMAND:
+                    // One in three commands creates a product, the rest reprice a seeded one
+                    if (productIds.isEmpty() || random.nextInt(3) == 0) {
+                        return jsonRequest(baseUrl + "/api/cqrs/commands/products", "POST",
+                                newProduct("load-" + random.nextInt(1_000_000)));
+                    }
+                    return HttpRequest.newBuilder(URI.create(baseUrl + "/api/cqrs/commands/products/"
+                                    + randomProductId(random) + "/price?price="
+                                    + BigDecimal.valueOf(random.nextInt(100, 100_000), 2)))
+                            .timeout(REQUEST_TIMEOUT)
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                            .build();
+                case PRODUCT_QUERY:
+                    return get("/api/cqrs/queries/products/" + randomProductId(random));
+                case ORDER_ANALYTICS:
+                    return get("/api/analytics/orders");
+                case RESILIENT_PAYMENT:
+                    return get("/api/resilience/payment");
+                default:
+                    throw new IllegalArgumentException("Unknown scenario " + scenario);
+            }
+        }
+
+        private long randomProductId(ThreadLocalRandom random) {
+            return productIds.isEmpty() ? 1 : productIds.get(random.nextInt(productIds.size()));
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+        }
+    }
+
+    /**
+     * Latencies of one scenario's measured requests.
+     */
+    private static final class LatencyRecorder {
+
+        private long[] latencies = new long[1024];
+        private int completed;
+        private long errors;
+        private long dropped;
+
+        synchronized void record(long latencyNanos, boolean error) {
+            if (completed == latencies.length) {
+                latencies = Arrays.copyOf(latencies, completed * 2);
+            }
+            latencies[completed++] = latencyNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized void drop() {
+            dropped++;
+            errors++;
+        }
+
+        synchronized long requests() {
+            return completed + dropped;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        synchronized long dropped() {
+            return dropped;
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, completed);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.controller;
+
+import com.shivamsrivastav.distributedpatterns.cqrs.service.ProductRehydrationBenchmark;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Runs the event-sourced rehydration benchmark on demand.
+ * <p>
+ * The benchmark writes and deletes {@code bench-} aggregates in the event
+ * store, so like the load test it is only part of the load-test build and
+ * only exposed with {@code loadtest.in-memory-broker=true}.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@RestController
+@RequestMapping("/api/cqrs/es/products")
+@ConditionalOnProperty(prefix = "loadtest", name = "in-memory-broker", havingValue = "true")
+public class ProductRehydrationBenchmarkController {
+
+    private final ProductRehydrationBenchmark rehydrationBenchmark;
+
+    public ProductRehydrationBenchmarkController(ProductRehydrationBenchmark rehydrationBenchmark) {
+        this.rehydrationBenchmark = rehydrationBenchmark;
+    }
+
+    @PostMapping("/benchmark/rehydration")
+    public ResponseEntity<List<ProductRehydrationBenchmark.Result>> benchmarkRehydration(
+            @RequestParam(defaultValue = "10,100,1000,10000") List<Integer> eventCounts,
+            @RequestParam(defaultValue = "20") int iterations) {
+        return ResponseEntity.ok(rehydrationBenchmark.run(eventCounts, iterations));
+    }
+}
@@ -0,0 +1,139 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.service;
+
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductAggregate;
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductEvent;
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductEventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures aggregate rehydration time against event count, with and without
+ * snapshots.
+ * <p>
+ * For every requested event count a fresh aggregate is written through the
+ * normal append path (so snapshots are taken exactly as in production), then
+ * loaded repeatedly both ways. Benchmark aggregates are prefixed with
+ * {@code bench-}, never projected to the query side, and deleted again once
+ * measured.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@ConditionalOnProperty(prefix = "loadtest", name = "in-memory-broker", havingValue = "true")
+public class ProductRehydrationBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductRehydrationBenchmark.class);
+    private static final int APPEND_BATCH = 1000;
+    private static final int WARMUP_RUNS = 3;
+
+    private final ProductEventStore eventStore;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductRehydrationBenchmark(ProductEventStore eventStore, TransactionTemplate transactionTemplate) {
+        this.eventStore = eventStore;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public List<Result> run(List<Integer> eventCounts, int iterations) {
+        List<Result> results = new ArrayList<>(eventCounts.size());
+        for (int eventCount : eventCounts) {
+            String id = "bench-" + eventCount + "-" + System.nanoTime();
+            long withSnapshot;
+            long withoutSnapshot;
+            try {
+                seed(id, eventCount);
+                withSnapshot = averageLoadNanos(id, true, iterations);
+                withoutSnapshot = averageLoadNanos(id, false, iterations);
+            } finally {
+                eventStore.delete(id);
+            }
+            Result result = new Result(eventCount, withSnapshot / 1000, withoutSnapshot / 1000);
+            log.info("Rehydration benchmark: {}", result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    private void seed(String id, int eventCount) {
+        ProductAggregate aggregate = new ProductAggregate(id);
+        ProductEvent created = new ProductEvent(id, 1, ProductEventType.PRODUCT_CREATED);
+        created.setName(id);
+        created.setPrice(BigDecimal.ONE);
+        created.setStockDelta(0);
+
+        List<ProductEvent> batch = new ArrayList<>(APPEND_BATCH);
+        aggregate.apply(created);
+        batch.add(created);
+        for (long seq = 2; seq <= eventCount; seq++) {
+            ProductEvent event = new ProductEvent(id, seq, ProductEventType.PRICE_CHANGED);
+            event.setPrice(BigDecimal.valueOf(seq, 2));
+            aggregate.apply(event);
+            batch.add(event);
+            if (batch.size() == APPEND_BATCH) {
+                flush(batch, aggregate);
+                batch = new ArrayList<>(APPEND_BATCH);
+            }
+        }
+        flush(batch, aggregate);
+    }
+
+    private void flush(List<ProductEvent> batch, ProductAggregate aggregate) {
+        transactionTemplate.executeWithoutResult(status -> eventStore.append(batch, List.of(aggregate)));
+    }
+
+    private long averageLoadNanos(String id, boolean useSnapshot, int iterations) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            eventStore.load(id, useSnapshot);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            eventStore.load(id, useSnapshot);
+        }
+        return (System.nanoTime() - start) / Math.max(1, iterations);
+    }
+
+    /**
+     * Average rehydration time for one event count.
+     */
+    public static class Result {
+
+        private final int eventCount;
+        private final long withSnapshotMicros;
+        private final long withoutSnapshotMicros;
+
+        public Result(int eventCount, long withSnapshotMicros, long withoutSnapshotMicros) {
+            this.eventCount = eventCount;
+            this.withSnapshotMicros = withSnapshotMicros;
+            this.withoutSnapshotMicros = withoutSnapshotMicros;
+        }
+
+        public int getEventCount() {
+            return eventCount;
+        }
+
+        public long getWithSnapshotMicros() {
+            return withSnapshotMicros;
+        }
+
+        public long getWithoutSnapshotMicros() {
+            return withoutSnapshotMicros;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "eventCount=" + eventCount +
+                    ", withSnapshotMicros=" + withSnapshotMicros +
+                    ", withoutSnapshotMicros=" + withoutSnapshotMicros +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.shivamsrivastav.distributedpatterns.resilience.controller;
+
+import com.shivamsrivastav.distributedpatterns.resilience.limiter.AdaptiveLimiterProperties;
+import com.shivamsrivastav.distributedpatterns.resilience.service.AdaptiveLimiterSimulation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Runs an adaptive limiter against a simulated slowing dependency on demand.
+ * <p>
+ * The simulation occupies up to {@code clients} threads for its whole
+ * duration, so like the load test it is only part of the load-test build and
+ * only exposed with {@code loadtest.in-memory-broker=true}.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@RestController
+@RequestMapping("/api/resilience")
+@ConditionalOnProperty(prefix = "loadtest", name = "in-memory-broker", havingValue = "true")
+public class AdaptiveLimiterSimulationController {
+
+    private final AdaptiveLimiterSimulation limiterSimulation;
+
+    public AdaptiveLimiterSimulationController(AdaptiveLimiterSimulation limiterSimulation) {
+        this.limiterSimulation = limiterSimulation;
+    }
+
+    /**
+     * Runs an adaptive limiter against a simulated dependency that slows down
+     * and returns the limit trajectory.
+     */
+    @PostMapping("/limiters/simulate")
+    public ResponseEntity<List<AdaptiveLimiterSimulation.Sample>> simulateLimiter(
+            @RequestParam(defaultValue = "GRADIENT") AdaptiveLimiterProperties.Algorithm algorithm,
+            @RequestParam(defaultValue = "50") int clients,
+            @RequestParam(defaultValue = "20") int capacity,
+            @RequestParam(defaultValue = "15") int durationSeconds) throws InterruptedException {
+        return ResponseEntity.ok(limiterSimulation.run(algorithm, clients, capacity, durationSeconds));
+    }
+}
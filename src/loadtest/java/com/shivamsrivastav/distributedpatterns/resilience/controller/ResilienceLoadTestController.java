@@ -0,0 +1,44 @@
+package com.shivamsrivastav.distributedpatterns.resilience.controller;
+
+import com.shivamsrivastav.distributedpatterns.resilience.service.ResilienceLoadTest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Drives the resilient payment endpoints of this instance to compare the
+ * sync and async variants.
+ * <p>
+ * Like the load test, only part of the load-test build and only exposed with
+ * {@code loadtest.in-memory-broker=true}, so a deployed instance cannot be
+ * made to load itself.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@RestController
+@RequestMapping("/api/resilience")
+@ConditionalOnProperty(prefix = "loadtest", name = "in-memory-broker", havingValue = "true")
+public class ResilienceLoadTestController {
+
+    private final ResilienceLoadTest resilienceLoadTest;
+
+    public ResilienceLoadTestController(ResilienceLoadTest resilienceLoadTest) {
+        this.resilienceLoadTest = resilienceLoadTest;
+    }
+
+    /**
+     * Compares thread usage and throughput of the sync and async endpoints,
+     * e.g. {@code POST /api/resilience/load-test?async=false&outage=true}.
+     */
+    @PostMapping("/load-test")
+    public ResponseEntity<ResilienceLoadTest.Report> loadTest(@RequestParam(defaultValue = "true") boolean async,
+            @RequestParam(defaultValue = "300") int requests,
+            @RequestParam(defaultValue = "100") int concurrency,
+            @RequestParam(defaultValue = "true") boolean outage) throws InterruptedException {
+        return ResponseEntity.ok(resilienceLoadTest.run(async, requests, concurrency, outage));
+    }
+}
@@ -0,0 +1,159 @@
+package com.shivamsrivastav.distributedpatterns.resilience.service;
+
+import com.shivamsrivastav.distributedpatterns.resilience.limiter.AdaptiveConcurrencyLimiter;
+import com.shivamsrivastav.distributedpatterns.resilience.limiter.AdaptiveLimiterProperties;
+import com.shivamsrivastav.distributedpatterns.resilience.limiter.LimitAlgorithm;
+import com.shivamsrivastav.distributedpatterns.resilience.limiter.LimitExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exercises an adaptive limiter against a simulated dependency that slows down.
+ * <p>
+ * The dependency has a fixed capacity; beyond it, latency grows linearly with
+ * the number of concurrent calls (queueing). Capacity drops to a third during
+ * the middle third of the run and then recovers. A well-behaved limiter
+ * follows the capacity down and back up while latency stays near the base.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@ConditionalOnProperty(prefix = "loadtest", name = "in-memory-broker", havingValue = "true")
+public class AdaptiveLimiterSimulation {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveLimiterSimulation.class);
+    private static final long BASE_LATENCY_MS = 50;
+    private static final long SAMPLE_INTERVAL_MS = 250;
+
+    public List<Sample> run(AdaptiveLimiterProperties.Algorithm algorithm, int clients, int capacity,
+            int durationSeconds) throws InterruptedException {
+        AdaptiveLimiterProperties.Instance config = new AdaptiveLimiterProperties.Instance();
+        config.setAlgorithm(algorithm);
+        config.setLatencyThreshold(Duration.ofMillis(BASE_LATENCY_MS * 2));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("simulation", config.newAlgorithm(),
+                config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+
+        long durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        long start = System.nanoTime();
+        AtomicInteger dependencyInFlight = new AtomicInteger();
+        LongAdder latencySum = new LongAdder();
+        LongAdder completed = new LongAdder();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            pool.submit(() -> {
+                while (System.nanoTime() - start < durationNanos) {
+                    int inFlight;
+                    try {
+                        inFlight = limiter.acquire();
+                    } catch (LimitExceededException e) {
+                        sleep(5);
+                        continue;
+                    }
+                    long callStart = System.nanoTime();
+                    int concurrent = dependencyInFlight.incrementAndGet();
+                    int currentCapacity = capacityAt(System.nanoTime() - start, durationNanos, capacity);
+                    sleep(BASE_LATENCY_MS * Math.max(1, concurrent) / Math.min(concurrent, currentCapacity));
+                    dependencyInFlight.decrementAndGet();
+                    long rtt = System.nanoTime() - callStart;
+                    limiter.release(rtt, inFlight, LimitAlgorithm.Outcome.SUCCESS);
+                    latencySum.add(rtt);
+                    completed.increment();
+                }
+            });
+        }
+
+        List<Sample> samples = new ArrayList<>();
+        long lastCompleted = 0;
+        long lastLatency = 0;
+        while (System.nanoTime() - start < durationNanos) {
+            Thread.sleep(SAMPLE_INTERVAL_MS);
+            long elapsed = System.nanoTime() - start;
+            long done = completed.sum();
+            long latency = latencySum.sum();
+            long calls = done - lastCompleted;
+            samples.add(new Sample(TimeUnit.NANOSECONDS.toMillis(elapsed), capacityAt(elapsed, durationNanos,
+                    capacity), limiter.getLimit(), limiter.getInFlight(),
+                    calls == 0 ? 0 : (latency - lastLatency) / calls / 1_000_000.0, limiter.getRejectedCount()));
+            lastCompleted = done;
+            lastLatency = latency;
+        }
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+        log.info("Adaptive limiter simulation ({}) finished: {} calls, {} rejected", algorithm, completed.sum(),
+                limiter.getRejectedCount());
+        return samples;
+    }
+
+    private static int capacityAt(long elapsedNanos, long durationNanos, int capacity) {
+        boolean slowPhase = elapsedNanos > durationNanos / 3 && elapsedNanos < 2 * durationNanos / 3;
+        return slowPhase ? Math.max(1, capacity / 3) : capacity;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Limiter state at one point of the simulation.
+     */
+    public static class Sample {
+
+        private final long elapsedMillis;
+        private final int dependencyCapacity;
+        private final int limit;
+        private final int inFlight;
+        private final double avgLatencyMillis;
+        private final long rejectedTotal;
+
+        public Sample(long elapsedMillis, int dependencyCapacity, int limit, int inFlight, double avgLatencyMillis,
+                long rejectedTotal) {
+            this.elapsedMillis = elapsedMillis;
+            this.dependencyCapacity = dependencyCapacity;
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.avgLatencyMillis = avgLatencyMillis;
+            this.rejectedTotal = rejectedTotal;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public int getDependencyCapacity() {
+            return dependencyCapacity;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public double getAvgLatencyMillis() {
+            return avgLatencyMillis;
+        }
+
+        public long getRejectedTotal() {
+            return rejectedTotal;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.shivamsrivastav.distributedpatterns.resilience.service;
+
+import com.shivamsrivastav.distributedpatterns.resilience.fault.FaultInjector;
+import com.shivamsrivastav.distributedpatterns.resilience.fault.FaultProfile;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.core.StandardThreadExecutor;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Drives the sync or async payment endpoint over HTTP and reports throughput,
+ * latency and thread usage, optionally during a simulated outage.
+ * <p>
+ * Requests go through Tomcat so the report shows what actually matters: how
+ * many request threads are pinned while Retry waits between attempts.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@ConditionalOnProperty(prefix = "loadtest", name = "in-memory-broker", havingValue = "true")
+public class ResilienceLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilienceLoadTest.class);
+
+    /**
+     * Outage window opened for an outage run; the previous profile is restored
+     * when the run ends.
+     */
+    private static final Duration OUTAGE_UPPER_BOUND = Duration.ofHours(1);
+
+    private final WebServerApplicationContext webServerContext;
+    private final FaultInjector faultInjector;
+
+    public ResilienceLoadTest(WebServerApplicationContext webServerContext, FaultInjector faultInjector) {
+        this.webServerContext = webServerContext;
+        this.faultInjector = faultInjector;
+    }
+
+    /**
+     * @param async       true for {@code /payment/async}, false for {@code /payment}
+     * @param requests    Total number of requests
+     * @param concurrency Maximum requests in flight
+     * @param outage      Force every dependency call to fail for the duration
+     */
+    public Report run(boolean async, int requests, int concurrency, boolean outage) throws InterruptedException {
+        WebServer webServer = webServerContext.getWebServer();
+        URI uri = URI.create("http://localhost:" + webServer.getPort() + "/api/resilience/payment"
+                + (async ? "/async" : ""));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        IntSupplier busyWorkers = tomcatBusyWorkers(webServer);
+        AtomicInteger peakBusyWorkers = new AtomicInteger();
+        LongAdder busySamples = new LongAdder();
+        LongAdder sampleCount = new LongAdder();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            int busy = busyWorkers.getAsInt();
+            peakBusyWorkers.accumulateAndGet(busy, Math::max);
+            busySamples.add(busy);
+            sampleCount.increment();
+        }, 0, 10, TimeUnit.MILLISECONDS);
+
+        FaultProfile previousFaults = faultInjector.getProfile(ResilientPaymentService.FAULT_DEPENDENCY);
+        if (outage) {
+            faultInjector.startOutage(ResilientPaymentService.FAULT_DEPENDENCY, OUTAGE_UPPER_BOUND);
+        }
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                int slot = i;
+                long sent = System.nanoTime();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                    latencies[slot] = System.nanoTime() - sent;
+                    if (ex != null || response.statusCode() >= 500) {
+                        errors.incrementAndGet();
+                    }
+                    inFlight.release();
+                    done.countDown();
+                });
+            }
+            done.await();
+        } finally {
+            faultInjector.update(ResilientPaymentService.FAULT_DEPENDENCY, previousFaults);
+            sampler.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        Report report = new Report(async ? "async" : "sync", outage, requests, concurrency, errors.get(),
+                requests / (elapsed / 1_000_000_000.0), percentileMillis(latencies, 0.50),
+                percentileMillis(latencies, 0.99), busySamples.sum() / (double) Math.max(1, sampleCount.sum()),
+                peakBusyWorkers.get(), threads.getPeakThreadCount());
+        log.info("Resilience load test: {}", report);
+        return report;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static IntSupplier tomcatBusyWorkers(WebServer webServer) {
+        if (webServer instanceof TomcatWebServer tomcat) {
+            Connector connector = tomcat.getTomcat().getConnector();
+            Executor executor = connector.getProtocolHandler().getExecutor();
+            if (executor instanceof StandardThreadExecutor shared) {
+                return shared::getActiveCount;
+            }
+            if (executor instanceof ThreadPoolExecutor pool) {
+                return pool::getActiveCount;
+            }
+        }
+        return () -> -1;
+    }
+
+    /**
+     * Result of one load test run.
+     */
+    public static class Report {
+
+        private final String mode;
+        private final boolean outage;
+        private final int requests;
+        private final int concurrency;
+        private final int errors;
+        private final double throughputPerSecond;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double avgBusyRequestThreads;
+        private final int peakBusyRequestThreads;
+        private final int peakJvmThreads;
+
+        public Report(String mode, boolean outage, int requests, int concurrency, int errors,
+                double throughputPerSecond, double p50Millis, double p99Millis, double avgBusyRequestThreads,
+                int peakBusyRequestThreads, int peakJvmThreads) {
+            this.mode = mode;
+            this.outage = outage;
+            this.requests = requests;
+            this.concurrency = concurrency;
+            this.errors = errors;
+            this.throughputPerSecond = throughputPerSecond;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.avgBusyRequestThreads = avgBusyRequestThreads;
+            this.peakBusyRequestThreads = peakBusyRequestThreads;
+            this.peakJvmThreads = peakJvmThreads;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public boolean isOutage() {
+            return outage;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+
+        public double getThroughputPerSecond() {
+            return throughputPerSecond;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getAvgBusyRequestThreads() {
+            return avgBusyRequestThreads;
+        }
+
+        public int getPeakBusyRequestThreads() {
+            return peakBusyRequestThreads;
+        }
+
+        public int getPeakJvmThreads() {
+            return peakJvmThreads;
+        }
+
+        @Override
+        public String toString() {
+            return "Report{" +
+                    "mode='" + mode + '\'' +
+                    ", outage=" + outage +
+                    ", requests=" + requests +
+                    ", errors=" + errors +
+                    ", throughputPerSecond=" + throughputPerSecond +
+                    ", p50Millis=" + p50Millis +
+                    ", p99Millis=" + p99Millis +
+                    ", avgBusyRequestThreads=" + avgBusyRequestThreads +
+                    ", peakBusyRequestThreads=" + peakBusyRequestThreads +
+                    ", peakJvmThreads=" + peakJvmThreads +
+                    '}';
+        }
+    }
+}
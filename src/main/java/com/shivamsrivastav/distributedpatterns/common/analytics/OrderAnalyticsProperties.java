@@ -0,0 +1,64 @@
+package com.shivamsrivastav.distributedpatterns.common.analytics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the in-memory order analytics fed by the Kafka consumer.
+ *
+ * @author Shivam Srivastav
+ */
+@ConfigurationProperties(prefix = "analytics.orders")
+public class OrderAnalyticsProperties {
+
+    /**
+     * Length of the sliding window for revenue and failure reasons, in minutes
+     * (at most 60).
+     */
+    private int slidingWindowMinutes = 15;
+
+    /**
+     * Local file the windows are checkpointed to and restored from; empty to
+     * keep them in memory only.
+     */
+    private String checkpointFile = "data/order-analytics.bin";
+
+    private long checkpointIntervalMs = 30000;
+
+    /**
+     * Distinct products and failure reasons tracked; the rest are counted
+     * under "(other)".
+     */
+    private int maxKeys = 10000;
+
+    public int getSlidingWindowMinutes() {
+        return slidingWindowMinutes;
+    }
+
+    public void setSlidingWindowMinutes(int slidingWindowMinutes) {
+        this.slidingWindowMinutes = slidingWindowMinutes;
+    }
+
+    public String getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    public void setCheckpointFile(String checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    public long getCheckpointIntervalMs() {
+        return checkpointIntervalMs;
+    }
+
+    public void setCheckpointIntervalMs(long checkpointIntervalMs) {
+        this.checkpointIntervalMs = checkpointIntervalMs;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+}
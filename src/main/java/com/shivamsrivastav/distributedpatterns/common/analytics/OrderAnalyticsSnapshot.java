@@ -0,0 +1,115 @@
+package com.shivamsrivastav.distributedpatterns.common.analytics;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Current state of the order analytics windows.
+ *
+ * @author Shivam Srivastav
+ */
+public class OrderAnalyticsSnapshot {
+
+    private Instant minute;
+    private Map<String, Integer> ordersByStatus;
+    private Map<String, Integer> previousMinuteOrdersByStatus;
+    private int slidingWindowMinutes;
+    private Map<String, BigDecimal> revenueByProduct;
+    private Map<String, Integer> failureReasons;
+    private long eventsProcessed;
+    private long lateEvents;
+
+    /**
+     * @return Start of the current one-minute tumbling window
+     */
+    public Instant getMinute() {
+        return minute;
+    }
+
+    public void setMinute(Instant minute) {
+        this.minute = minute;
+    }
+
+    /**
+     * @return Orders per status in the current minute
+     */
+    public Map<String, Integer> getOrdersByStatus() {
+        return ordersByStatus;
+    }
+
+    public void setOrdersByStatus(Map<String, Integer> ordersByStatus) {
+        this.ordersByStatus = ordersByStatus;
+    }
+
+    /**
+     * @return Orders per status in the last complete minute
+     */
+    public Map<String, Integer> getPreviousMinuteOrdersByStatus() {
+        return previousMinuteOrdersByStatus;
+    }
+
+    public void setPreviousMinuteOrdersByStatus(Map<String, Integer> previousMinuteOrdersByStatus) {
+        this.previousMinuteOrdersByStatus = previousMinuteOrdersByStatus;
+    }
+
+    public int getSlidingWindowMinutes() {
+        return slidingWindowMinutes;
+    }
+
+    public void setSlidingWindowMinutes(int slidingWindowMinutes) {
+        this.slidingWindowMinutes = slidingWindowMinutes;
+    }
+
+    /**
+     * @return Revenue of completed orders per product over the sliding window
+     */
+    public Map<String, BigDecimal> getRevenueByProduct() {
+        return revenueByProduct;
+    }
+
+    public void setRevenueByProduct(Map<String, BigDecimal> revenueByProduct) {
+        this.revenueByProduct = revenueByProduct;
+    }
+
+    /**
+     * @return Cancelled orders per failure reason over the sliding window
+     */
+    public Map<String, Integer> getFailureReasons() {
+        return failureReasons;
+    }
+
+    public void setFailureReasons(Map<String, Integer> failureReasons) {
+        this.failureReasons = failureReasons;
+    }
+
+    public long getEventsProcessed() {
+        return eventsProcessed;
+    }
+
+    public void setEventsProcessed(long eventsProcessed) {
+        this.eventsProcessed = eventsProcessed;
+    }
+
+    /**
+     * @return Events older than the retained hour, which were dropped
+     */
+    public long getLateEvents() {
+        return lateEvents;
+    }
+
+    public void setLateEvents(long lateEvents) {
+        this.lateEvents = lateEvents;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderAnalyticsSnapshot{" +
+                "minute=" + minute +
+                ", ordersByStatus=" + ordersByStatus +
+                ", revenueByProduct=" + revenueByProduct +
+                ", failureReasons=" + failureReasons +
+                ", eventsProcessed=" + eventsProcessed +
+                '}';
+    }
+}
@@ -0,0 +1,491 @@
+package com.shivamsrivastav.distributedpatterns.common.analytics;
+
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.OrderStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental, windowed order analytics computed from the {@code orders}
+ * stream, so that throughput and revenue questions no longer need SQL over
+ * {@code saga_orders}.
+ * <p>
+ * Events are bucketed by their Kafka timestamp, capped at the current time,
+ * into one-minute slots kept in a ring covering the last hour; a producer
+ * clock running ahead cannot move the windows into the future and clear
+ * them. Each slot counts orders per status (the
+ * tumbling windows) and accumulates revenue per product and cancellations per
+ * failure reason; running totals of the latter two over the last
+ * {@code analytics.orders.sliding-window-minutes} are updated as events arrive
+ * and as minutes leave the window. Products and reasons are interned to
+ * {@code int} ids, so the counters themselves are plain arrays, and a
+ * {@link #snapshot()} costs the same however many orders went through.
+ * </p>
+ * <p>
+ * The windows are checkpointed to a local file together with the last
+ * offset applied per partition, and restored on startup. The
+ * {@code OrderAnalyticsConsumer}, alone in a per-instance consumer group,
+ * seeks each partition back to the record after its checkpointed offset
+ * (see {@link #resumeOffset(int)}), so events consumed after the last
+ * checkpoint are read again rather than lost on a crash; records seen twice
+ * are skipped by offset. The checkpoint is copied under the lock and written
+ * to disk outside it, so recording does not wait on file I/O.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@EnableConfigurationProperties(OrderAnalyticsProperties.class)
+public class OrderWindowAnalytics {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderWindowAnalytics.class);
+
+    static final int RETAINED_MINUTES = 60;
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final String OTHER = "(other)";
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final int slidingMinutes;
+    private final Path checkpointFile;
+    private final Object checkpointWriteLock = new Object();
+
+    // All state below is guarded by this
+    private final KeyDictionary products;
+    private final KeyDictionary failureReasons;
+    private final MinuteSlot[] slots = new MinuteSlot[RETAINED_MINUTES];
+    private long currentMinute = Long.MIN_VALUE;
+    private long[] revenueTotals = new long[16];
+    private int[] failureTotals = new int[16];
+    private long[] offsets = new long[0];
+    private long eventsProcessed;
+    private long lateEvents;
+    private boolean dirty;
+
+    public OrderWindowAnalytics(OrderAnalyticsProperties properties) {
+        if (properties.getSlidingWindowMinutes() < 1 || properties.getSlidingWindowMinutes() > RETAINED_MINUTES) {
+            throw new IllegalArgumentException("analytics.orders.sliding-window-minutes must be within 1.."
+                    + RETAINED_MINUTES);
+        }
+        this.slidingMinutes = properties.getSlidingWindowMinutes();
+        this.checkpointFile = properties.getCheckpointFile() == null || properties.getCheckpointFile().isBlank()
+                ? null
+                : Path.of(properties.getCheckpointFile());
+        this.products = new KeyDictionary(properties.getMaxKeys());
+        this.failureReasons = new KeyDictionary(properties.getMaxKeys());
+        for (int i = 0; i < RETAINED_MINUTES; i++) {
+            slots[i] = new MinuteSlot();
+        }
+        restore();
+    }
+
+    /**
+     * Applies one order event.
+     *
+     * @param partition     Kafka partition of the record
+     * @param offset        Offset of the record
+     * @param timestampMs   Record timestamp, which decides the window
+     * @param status        Order status carried by the event
+     * @param productId     Ordered product
+     * @param price         Order total
+     * @param failureReason Why the order was cancelled, if it was
+     */
+    public synchronized void record(int partition, long offset, long timestampMs, OrderStatus status,
+            String productId, BigDecimal price, String failureReason) {
+        if (offset <= lastOffset(partition) || status == null) {
+            // Already part of the restored checkpoint, or not an order state event
+            return;
+        }
+        offsets[partition] = offset;
+        dirty = true;
+        eventsProcessed++;
+
+        long minute = Math.floorDiv(Math.min(timestampMs, System.currentTimeMillis()), 60_000L);
+        advanceTo(minute);
+        if (minute <= currentMinute - RETAINED_MINUTES) {
+            lateEvents++;
+            return;
+        }
+        MinuteSlot slot = slots[index(minute)];
+        if (slot.minute != minute) {
+            slot.reset(minute);
+        }
+        boolean inSlidingWindow = minute > currentMinute - slidingMinutes;
+
+        slot.statusCounts[status.ordinal()]++;
+        if (status == OrderStatus.COMPLETED && price != null) {
+            int product = products.idOf(productId);
+            long cents = price.movePointRight(2).longValue();
+            slot.revenue = add(slot.revenue, product, cents);
+            if (inSlidingWindow) {
+                revenueTotals = add(revenueTotals, product, cents);
+            }
+        } else if (status == OrderStatus.CANCELLED) {
+            int reason = failureReasons.idOf(failureReason);
+            slot.failures = add(slot.failures, reason, 1);
+            if (inSlidingWindow) {
+                failureTotals = add(failureTotals, reason, 1);
+            }
+        }
+    }
+
+    /**
+     * @param partition Kafka partition
+     * @return Offset to resume the partition from, the one after the last
+     *         applied; -1 if no record of the partition was applied
+     */
+    public synchronized long resumeOffset(int partition) {
+        long last = lastOffset(partition);
+        return last < 0 ? -1 : last + 1;
+    }
+
+    /**
+     * @return The current windows, as of now
+     */
+    public synchronized OrderAnalyticsSnapshot snapshot() {
+        advanceTo(Math.floorDiv(System.currentTimeMillis(), 60_000L));
+
+        OrderAnalyticsSnapshot snapshot = new OrderAnalyticsSnapshot();
+        snapshot.setMinute(Instant.ofEpochSecond(currentMinute * 60));
+        snapshot.setOrdersByStatus(statusCounts(currentMinute));
+        snapshot.setPreviousMinuteOrdersByStatus(statusCounts(currentMinute - 1));
+        snapshot.setSlidingWindowMinutes(slidingMinutes);
+
+        Map<String, BigDecimal> revenue = new LinkedHashMap<>();
+        for (int id = 0; id < Math.min(products.size(), revenueTotals.length); id++) {
+            if (revenueTotals[id] != 0) {
+                revenue.put(products.keyOf(id), BigDecimal.valueOf(revenueTotals[id], 2));
+            }
+        }
+        snapshot.setRevenueByProduct(revenue);
+
+        Map<String, Integer> failures = new LinkedHashMap<>();
+        for (int id = 0; id < Math.min(failureReasons.size(), failureTotals.length); id++) {
+            if (failureTotals[id] != 0) {
+                failures.put(failureReasons.keyOf(id), failureTotals[id]);
+            }
+        }
+        snapshot.setFailureReasons(failures);
+        snapshot.setEventsProcessed(eventsProcessed);
+        snapshot.setLateEvents(lateEvents);
+        return snapshot;
+    }
+
+    private Map<String, Integer> statusCounts(long minute) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        MinuteSlot slot = slots[index(minute)];
+        for (OrderStatus status : STATUSES) {
+            counts.put(status.name(), slot.minute == minute ? slot.statusCounts[status.ordinal()] : 0);
+        }
+        return counts;
+    }
+
+    /**
+     * Moves the window end forward, taking minutes that leave the sliding
+     * window out of the running totals.
+     */
+    private void advanceTo(long minute) {
+        if (minute <= currentMinute) {
+            return;
+        }
+        if (currentMinute == Long.MIN_VALUE || minute - currentMinute >= RETAINED_MINUTES) {
+            for (MinuteSlot slot : slots) {
+                slot.reset(Long.MIN_VALUE);
+            }
+            Arrays.fill(revenueTotals, 0);
+            Arrays.fill(failureTotals, 0);
+            currentMinute = minute;
+            return;
+        }
+        for (long next = currentMinute + 1; next <= minute; next++) {
+            MinuteSlot leaving = slots[index(next - slidingMinutes)];
+            if (leaving.minute == next - slidingMinutes) {
+                subtract(revenueTotals, leaving.revenue);
+                subtract(failureTotals, leaving.failures);
+            }
+            slots[index(next)].reset(next);
+        }
+        currentMinute = minute;
+    }
+
+    private static int index(long minute) {
+        return (int) Math.floorMod(minute, (long) RETAINED_MINUTES);
+    }
+
+    private long lastOffset(int partition) {
+        if (partition >= offsets.length) {
+            int previousLength = offsets.length;
+            offsets = Arrays.copyOf(offsets, partition + 1);
+            Arrays.fill(offsets, previousLength, offsets.length, -1L);
+        }
+        return offsets[partition];
+    }
+
+    private static long[] add(long[] values, int id, long amount) {
+        long[] target = id < values.length ? values : Arrays.copyOf(values, Math.max(id + 1, values.length * 2));
+        target[id] += amount;
+        return target;
+    }
+
+    private static int[] add(int[] values, int id, int amount) {
+        int[] target = id < values.length ? values : Arrays.copyOf(values, Math.max(id + 1, values.length * 2));
+        target[id] += amount;
+        return target;
+    }
+
+    private static void subtract(long[] totals, long[] values) {
+        for (int i = 0; i < Math.min(totals.length, values.length); i++) {
+            totals[i] -= values[i];
+        }
+    }
+
+    private static void subtract(int[] totals, int[] values) {
+        for (int i = 0; i < Math.min(totals.length, values.length); i++) {
+            totals[i] -= values[i];
+        }
+    }
+
+    /**
+     * Writes the windows to the checkpoint file if anything changed since the
+     * last checkpoint. The file is replaced atomically.
+     */
+    @Scheduled(fixedDelayString = "${analytics.orders.checkpoint-interval-ms:30000}")
+    @PreDestroy
+    public void checkpoint() {
+        if (checkpointFile == null) {
+            return;
+        }
+        synchronized (checkpointWriteLock) {
+            byte[] state = copyIfDirty();
+            if (state == null) {
+                return;
+            }
+            try {
+                Path directory = checkpointFile.toAbsolutePath().getParent();
+                Files.createDirectories(directory);
+                Path temp = Files.createTempFile(directory, checkpointFile.getFileName().toString(), ".tmp");
+                try (var out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                    out.write(state);
+                }
+                Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Could not checkpoint order analytics to {}: {}", checkpointFile, e.getMessage());
+                synchronized (this) {
+                    dirty = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The serialized windows, or null if nothing changed since the
+     *         last checkpoint
+     */
+    private synchronized byte[] copyIfDirty() {
+        if (!dirty) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out);
+        } catch (IOException e) {
+            // Not thrown by an in-memory stream
+            throw new IllegalStateException(e);
+        }
+        dirty = false;
+        return bytes.toByteArray();
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(CHECKPOINT_VERSION);
+        out.writeInt(STATUSES.length);
+        out.writeLong(currentMinute);
+        out.writeLong(eventsProcessed);
+        out.writeLong(lateEvents);
+        out.writeInt(offsets.length);
+        for (long offset : offsets) {
+            out.writeLong(offset);
+        }
+        products.write(out);
+        failureReasons.write(out);
+        for (MinuteSlot slot : slots) {
+            out.writeLong(slot.minute);
+            for (int count : slot.statusCounts) {
+                out.writeInt(count);
+            }
+            out.writeInt(slot.revenue.length);
+            for (long cents : slot.revenue) {
+                out.writeLong(cents);
+            }
+            out.writeInt(slot.failures.length);
+            for (int count : slot.failures) {
+                out.writeInt(count);
+            }
+        }
+    }
+
+    private void restore() {
+        if (checkpointFile == null || !Files.exists(checkpointFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+            if (in.readInt() != CHECKPOINT_VERSION || in.readInt() != STATUSES.length) {
+                log.warn("Ignoring order analytics checkpoint {} written by another version", checkpointFile);
+                return;
+            }
+            read(in);
+            log.info("Restored order analytics from {} ({} events)", checkpointFile, eventsProcessed);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable order analytics checkpoint {}: {}", checkpointFile, e.getMessage());
+            currentMinute = Long.MIN_VALUE;
+            eventsProcessed = 0;
+            lateEvents = 0;
+            offsets = new long[0];
+            products.clear();
+            failureReasons.clear();
+            for (MinuteSlot slot : slots) {
+                slot.reset(Long.MIN_VALUE);
+            }
+        }
+    }
+
+    private void read(DataInputStream in) throws IOException {
+        currentMinute = in.readLong();
+        eventsProcessed = in.readLong();
+        lateEvents = in.readLong();
+        offsets = new long[in.readInt()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = in.readLong();
+        }
+        products.read(in);
+        failureReasons.read(in);
+        for (MinuteSlot slot : slots) {
+            slot.reset(in.readLong());
+            for (int i = 0; i < slot.statusCounts.length; i++) {
+                slot.statusCounts[i] = in.readInt();
+            }
+            slot.revenue = new long[in.readInt()];
+            for (int i = 0; i < slot.revenue.length; i++) {
+                slot.revenue[i] = in.readLong();
+            }
+            slot.failures = new int[in.readInt()];
+            for (int i = 0; i < slot.failures.length; i++) {
+                slot.failures[i] = in.readInt();
+            }
+        }
+        // Running totals are derived from the slots still inside the sliding window
+        revenueTotals = new long[Math.max(16, products.size())];
+        failureTotals = new int[Math.max(16, failureReasons.size())];
+        for (MinuteSlot slot : slots) {
+            if (slot.minute != Long.MIN_VALUE && slot.minute > currentMinute - slidingMinutes) {
+                for (int i = 0; i < slot.revenue.length; i++) {
+                    revenueTotals = add(revenueTotals, i, slot.revenue[i]);
+                }
+                for (int i = 0; i < slot.failures.length; i++) {
+                    failureTotals = add(failureTotals, i, slot.failures[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counters of one minute, indexed by status ordinal, product id and
+     * failure-reason id.
+     */
+    private static class MinuteSlot {
+        private long minute = Long.MIN_VALUE;
+        private final int[] statusCounts = new int[STATUSES.length];
+        private long[] revenue = new long[0];
+        private int[] failures = new int[0];
+
+        void reset(long minute) {
+            this.minute = minute;
+            Arrays.fill(statusCounts, 0);
+            revenue = new long[0];
+            failures = new int[0];
+        }
+    }
+
+    /**
+     * Interns string keys to dense {@code int} ids. Once full, new keys share
+     * the id of {@value #OTHER}.
+     */
+    private static class KeyDictionary {
+        private final int maxKeys;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> keys = new ArrayList<>();
+
+        KeyDictionary(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        int idOf(String key) {
+            String name = key == null ? "(none)" : key;
+            Integer id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (keys.size() >= maxKeys - 1) {
+                name = OTHER;
+                id = ids.get(name);
+                if (id != null) {
+                    return id;
+                }
+            }
+            id = keys.size();
+            ids.put(name, id);
+            keys.add(name);
+            return id;
+        }
+
+        String keyOf(int id) {
+            return keys.get(id);
+        }
+
+        int size() {
+            return keys.size();
+        }
+
+        void clear() {
+            ids.clear();
+            keys.clear();
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(keys.size());
+            for (String key : keys) {
+                out.writeUTF(key);
+            }
+        }
+
+        void read(DataInputStream in) throws IOException {
+            clear();
+            int size = in.readInt();
+            for (int id = 0; id < size; id++) {
+                String key = in.readUTF();
+                ids.put(key, id);
+                keys.add(key);
+            }
+        }
+    }
+}
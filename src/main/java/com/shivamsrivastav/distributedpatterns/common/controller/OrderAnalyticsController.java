@@ -0,0 +1,34 @@
+package com.shivamsrivastav.distributedpatterns.common.controller;
+
+import com.shivamsrivastav.distributedpatterns.common.analytics.OrderAnalyticsSnapshot;
+import com.shivamsrivastav.distributedpatterns.common.analytics.OrderWindowAnalytics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Order throughput, revenue and failure analytics computed from the order
+ * event stream, without touching the transactional database.
+ *
+ * @author Shivam Srivastav
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class OrderAnalyticsController {
+
+    private final OrderWindowAnalytics analytics;
+
+    public OrderAnalyticsController(OrderWindowAnalytics analytics) {
+        this.analytics = analytics;
+    }
+
+    /**
+     * Orders per status in the current and previous minute, and revenue per
+     * product and failure reasons over the sliding window.
+     */
+    @GetMapping("/orders")
+    public ResponseEntity<OrderAnalyticsSnapshot> getOrderAnalytics() {
+        return ResponseEntity.ok(analytics.snapshot());
+    }
+}
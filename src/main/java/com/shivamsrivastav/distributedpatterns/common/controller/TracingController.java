@@ -0,0 +1,42 @@
+package com.shivamsrivastav.distributedpatterns.common.controller;
+
+import com.shivamsrivastav.distributedpatterns.common.tracing.SpanExporter;
+import com.shivamsrivastav.distributedpatterns.common.tracing.StageLatencyBreakdown;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aggregated view of the order-flow traces.
+ *
+ * @author Shivam Srivastav
+ */
+@RestController
+@RequestMapping("/api/tracing")
+public class TracingController {
+
+    private final StageLatencyBreakdown breakdown;
+    private final SpanExporter exporter;
+
+    public TracingController(StageLatencyBreakdown breakdown, SpanExporter exporter) {
+        this.breakdown = breakdown;
+        this.exporter = exporter;
+    }
+
+    /**
+     * Per-stage latency breakdown of sampled orders: HTTP entry, each saga
+     * step, outbox insert, relay delay, Kafka publish and delivery, and
+     * consumption.
+     */
+    @GetMapping("/stages")
+    public ResponseEntity<Map<String, Object>> getStageBreakdown() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("stages", breakdown.snapshot());
+        body.put("droppedSpans", exporter.getDroppedCount());
+        return ResponseEntity.ok(body);
+    }
+}
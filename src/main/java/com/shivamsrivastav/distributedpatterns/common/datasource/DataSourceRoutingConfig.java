@@ -0,0 +1,77 @@
+package com.shivamsrivastav.distributedpatterns.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Read/write DataSource routing for the CQRS query side.
+ * <p>
+ * Enabled with {@code datasource.routing.enabled=true}. The primary is still
+ * built from {@code spring.datasource.*}; every transaction marked
+ * {@code readOnly} (e.g. {@code ProductQueryService}) is sent to one of the
+ * {@code datasource.routing.replicas}, while command transactions stay on the
+ * primary.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties primaryProperties,
+            ReplicaRoutingProperties routingProperties) {
+        DataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        List<DataSource> replicas = routingProperties.getReplicas().stream()
+                .map(replica -> (DataSource) DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(replica.getUrl())
+                        .username(replica.getUsername())
+                        .password(replica.getPassword())
+                        .build())
+                .toList();
+        return new ReadWriteRoutingDataSource(primary, replicas, routingProperties.getMaxLagMs(),
+                routingProperties.getLagQuery());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadWriteRoutingDataSource routingDataSource) {
+        return new ReplicaLagMonitor(routingDataSource);
+    }
+
+    /**
+     * Periodically re-evaluates which replicas may serve reads.
+     */
+    public static class ReplicaLagMonitor {
+
+        private final ReadWriteRoutingDataSource routingDataSource;
+
+        public ReplicaLagMonitor(ReadWriteRoutingDataSource routingDataSource) {
+            this.routingDataSource = routingDataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval-ms:2000}")
+        public void check() {
+            routingDataSource.checkReplicaLag();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.shivamsrivastav.distributedpatterns.common.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to replicas and everything else to the primary.
+ * <p>
+ * Replicas are picked round-robin among those currently within the lag budget;
+ * when none is, reads fall back to the primary. The lag is measured with the
+ * configured query or, without one, with {@link #POSTGRES_LAG_QUERY} on
+ * PostgreSQL; other databases, such as an embedded H2, are only checked for
+ * being reachable. Must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so
+ * the connection is fetched after the transaction's read-only flag is set.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * A replica that has replayed all the WAL it received is caught up (lag
+     * 0), however long ago the last transaction was; the time since the last
+     * replayed transaction only counts while WAL is still waiting to be
+     * replayed, so an idle primary does not make its replicas look stale.
+     */
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = "
+            + "pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final List<String> replicaKeys;
+    private final Map<String, DataSource> replicas;
+    private final long maxLagMs;
+    private final String lagQuery;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthyReplicas;
+
+    /**
+     * @param lagQuery Query returning a replica's lag in milliseconds, or
+     *                 {@code null} to pick one by database product
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, long maxLagMs,
+            String lagQuery) {
+        this.maxLagMs = maxLagMs;
+        this.lagQuery = lagQuery;
+        this.replicas = new HashMap<>();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            String key = "replica-" + i;
+            replicas.put(key, replicaDataSources.get(i));
+            targets.put(key, replicaDataSources.get(i));
+        }
+        this.replicaKeys = replicas.keySet().stream().sorted().toList();
+        this.healthyReplicas = replicaKeys;
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> candidates = healthyReplicas;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Measures each replica's lag and rebuilds the set used for reads.
+     * An unreachable replica counts as lagging.
+     */
+    public void checkReplicaLag() {
+        List<String> healthy = replicaKeys.stream().filter(this::withinLagBudget).toList();
+        if (!healthy.equals(healthyReplicas)) {
+            log.warn("Replica set for read-only transactions changed: {} -> {}", healthyReplicas, healthy);
+        }
+        healthyReplicas = healthy;
+    }
+
+    private boolean withinLagBudget(String key) {
+        try (Connection connection = replicas.get(key).getConnection()) {
+            String query = lagQuery != null ? lagQuery : defaultLagQuery(connection);
+            if (query == null) {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(query)) {
+                long lagMs = rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+                return lagMs <= maxLagMs;
+            }
+        } catch (Exception e) {
+            log.warn("Lag check failed for {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    private static String defaultLagQuery(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        return "PostgreSQL".equalsIgnoreCase(product) ? POSTGRES_LAG_QUERY : null;
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+}
@@ -0,0 +1,60 @@
+package com.shivamsrivastav.distributedpatterns.common.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the saga shard the current thread works on.
+ * <p>
+ * Read by {@link ShardRoutingDataSource} when a transaction first touches the
+ * database; threads without a shard use the default one (the primary).
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return The current shard, or {@code null} outside of any shard
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs the action with the given shard as the current one, restoring the
+     * previous shard afterwards.
+     */
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        Integer previous = activate(shard);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Binds a shard (or none) to the calling thread, for carrying the
+     * current one over to another thread.
+     *
+     * @return The previously bound shard, for {@link #restore}
+     */
+    public static Integer activate(Integer shard) {
+        Integer previous = CURRENT.get();
+        restore(shard);
+        return previous;
+    }
+
+    public static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
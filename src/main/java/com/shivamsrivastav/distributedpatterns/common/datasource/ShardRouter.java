@@ -0,0 +1,128 @@
+package com.shivamsrivastav.distributedpatterns.common.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Places saga data on shards by customer and runs work against them.
+ * <p>
+ * With sharding disabled there is a single shard and everything runs on the
+ * caller's thread. Otherwise an order and its outbox events live on the shard
+ * picked by the hash of {@code customerId}, so the saga transaction stays
+ * local to one database; reads that span customers scatter to every shard in
+ * parallel and gather the results.
+ * </p>
+ * <p>
+ * Request-path reads and background work such as the outbox relay fan out on
+ * separate pools, so a relay pass that is slow on one shard does not hold up
+ * the scatter-gather of API requests, and a burst of requests does not delay
+ * the relay.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+    private final ExecutorService readExecutor;
+    private final ExecutorService backgroundExecutor;
+
+    public ShardRouter(ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        ShardRoutingDataSource routingDataSource = shardRoutingDataSource.getIfAvailable();
+        this.shardCount = routingDataSource == null ? 1 : routingDataSource.getShardCount();
+        this.readExecutor = shardCount == 1 ? null
+                : Executors.newFixedThreadPool(shardCount, daemonThreads("shard-read-"));
+        this.backgroundExecutor = shardCount == 1 ? null
+                : Executors.newFixedThreadPool(shardCount, daemonThreads("shard-background-"));
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return The shard holding the customer's orders
+     */
+    public int shardFor(String customerId) {
+        return customerId == null ? 0 : Math.floorMod(customerId.hashCode(), shardCount);
+    }
+
+    /**
+     * Runs the action, including any transaction it starts, on the given shard.
+     */
+    public <T> T onShard(int shard, Supplier<T> action) {
+        return ShardContext.callOn(shard, action);
+    }
+
+    /**
+     * Runs the action once per shard, in parallel, and returns the results in
+     * shard order. For reads on the request path.
+     *
+     * @param action Work for one shard, given its index
+     */
+    public <T> List<T> onEveryShard(IntFunction<T> action) {
+        return onEveryShard(action, readExecutor);
+    }
+
+    /**
+     * Like {@link #onEveryShard(IntFunction)}, on the pool for background
+     * work, such as the outbox relay and startup backfills.
+     *
+     * @param action Work for one shard, given its index
+     */
+    public <T> List<T> onEveryShardInBackground(IntFunction<T> action) {
+        return onEveryShard(action, backgroundExecutor);
+    }
+
+    private <T> List<T> onEveryShard(IntFunction<T> action, ExecutorService executor) {
+        if (shardCount == 1) {
+            return Collections.singletonList(onShard(0, () -> action.apply(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(target, () -> action.apply(target)), executor));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Scatter-gather read: runs the query on every shard and concatenates the
+     * results.
+     */
+    public <T> List<T> gather(Supplier<List<T>> query) {
+        List<T> results = new ArrayList<>();
+        onEveryShard(shard -> query.get()).forEach(results::addAll);
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (readExecutor != null) {
+            readExecutor.shutdownNow();
+            backgroundExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.shivamsrivastav.distributedpatterns.common.datasource;
+
+import com.shivamsrivastav.distributedpatterns.outbox.model.OutboxEvent;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.SagaOrder;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Customer-sharded storage for saga orders and their outbox events.
+ * <p>
+ * Enabled with {@code datasource.sharding.enabled=true}. Cannot be combined
+ * with read/write routing ({@code datasource.routing.enabled}); both replace
+ * the primary DataSource.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "datasource.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties primaryProperties,
+            ShardingProperties shardingProperties) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build());
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            shards.add(DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build());
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRoutingDataSource shardRoutingDataSource,
+            EntityManagerFactoryBuilder entityManagerFactoryBuilder, JpaProperties jpaProperties,
+            HibernateProperties hibernateProperties) {
+        // Same ddl-auto and naming strategies as the application's own EntityManagerFactory
+        Map<String, Object> hibernateSettings = hibernateProperties.determineHibernateProperties(
+                jpaProperties.getProperties(), new HibernateSettings().ddlAuto(() -> "none"));
+        ShardSchemaInitializer initializer = new ShardSchemaInitializer();
+        initializer.initialize(shardRoutingDataSource, entityManagerFactoryBuilder, hibernateSettings);
+        return initializer;
+    }
+
+    /**
+     * Applies the JPA schema handling ({@code spring.jpa.hibernate.ddl-auto})
+     * to the sharded tables of every shard besides the primary, which gets it
+     * from the application's own EntityManagerFactory.
+     */
+    public static class ShardSchemaInitializer {
+
+        void initialize(ShardRoutingDataSource routingDataSource, EntityManagerFactoryBuilder builder,
+                Map<String, Object> hibernateSettings) {
+            for (int shard = 1; shard < routingDataSource.getShardCount(); shard++) {
+                LocalContainerEntityManagerFactoryBean factory = builder
+                        .dataSource(routingDataSource.getShard(shard))
+                        .packages(SagaOrder.class, OutboxEvent.class)
+                        .persistenceUnit("shard-" + shard)
+                        .properties(hibernateSettings)
+                        .build();
+                factory.setBootstrapExecutor(null);
+                factory.afterPropertiesSet();
+                factory.destroy();
+                log.info("Schema of saga shard {} is up to date", shard);
+            }
+        }
+    }
+}
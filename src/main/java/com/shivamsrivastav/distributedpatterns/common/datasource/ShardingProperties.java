@@ -0,0 +1,73 @@
+package com.shivamsrivastav.distributedpatterns.common.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for sharding saga orders and their outbox events by customer.
+ *
+ * @author Shivam Srivastav
+ */
+@ConfigurationProperties(prefix = "datasource.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /**
+     * Shards in addition to the primary ({@code spring.datasource.*}), which is
+     * always shard 0. Their order must never change once data is written.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Connection settings of one shard.
+     */
+    public static class Shard {
+
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -1,12 +1,26 @@
 package com.shivamsrivastav.distributedpatterns.common.service;
 
+import com.shivamsrivastav.distributedpatterns.common.tracing.TraceContext;
+import com.shivamsrivastav.distributedpatterns.common.tracing.Tracer;
+import com.shivamsrivastav.distributedpatterns.common.tracing.TracingFilter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Service to consume Kafka messages for verification.
+ * <p>
+ * Continues the trace from the {@code traceparent} header: the time between
+ * the record's producer timestamp and its receipt becomes a
+ * {@code kafka.delivery} span, and handling a {@code consumer.process} span.
+ * </p>
+ * The windowed order analytics are fed by {@link OrderAnalyticsConsumer} in a
+ * group of their own, not by this {@code saga-group} listener.
  *
  * @author Shivam Srivastav
  */
@@ -15,8 +29,20 @@ public class KafkaConsumerService {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaConsumerService.class);
 
+    private final Tracer tracer;
+
+    public KafkaConsumerService(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
     @KafkaListener(topics = "orders", groupId = "saga-group")
-    public void consume(String message) {
-        log.info("<<< Received Kafka Message: {}", message);
+    public void consume(ConsumerRecord<String, String> record) {
+        Header header = record.headers().lastHeader(TracingFilter.TRACE_PARENT_HEADER);
+        TraceContext trace = header == null ? null
+                : TraceContext.parse(new String(header.value(), StandardCharsets.UTF_8));
+        if (trace != null) {
+            tracer.recordSpan("kafka.delivery", trace, record.timestamp() * 1000, Tracer.nowMicros());
+        }
+        tracer.inSpan("consumer.process", trace, () -> log.info("<<< Received Kafka Message: {}", record.value()));
     }
 }
@@ -0,0 +1,68 @@
+package com.shivamsrivastav.distributedpatterns.common.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivamsrivastav.distributedpatterns.common.analytics.OrderWindowAnalytics;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.SagaOrder;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Feeds every order event into the windowed {@link OrderWindowAnalytics}.
+ * <p>
+ * The analytics and their checkpoint are local to this instance, so the
+ * listener runs in a consumer group of its own
+ * ({@code analytics.orders.group-id}, one per instance) and is assigned every
+ * partition of {@code orders}: the windows cover all orders, not just the
+ * partitions a shared group happened to hand this instance, and seeking to
+ * the checkpointed offsets only ever moves this instance's own position. On
+ * assignment each partition is rewound to just after the last offset in the
+ * checkpoint, so events consumed but not yet checkpointed before a crash are
+ * applied again.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Service
+public class OrderAnalyticsConsumer implements ConsumerSeekAware {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderAnalyticsConsumer.class);
+
+    private static final String ORDERS_TOPIC = "orders";
+
+    private final OrderWindowAnalytics analytics;
+    private final ObjectMapper objectMapper;
+
+    public OrderAnalyticsConsumer(OrderWindowAnalytics analytics, ObjectMapper objectMapper) {
+        this.analytics = analytics;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        for (TopicPartition partition : assignments.keySet()) {
+            long resumeOffset = analytics.resumeOffset(partition.partition());
+            if (resumeOffset >= 0) {
+                callback.seek(partition.topic(), partition.partition(), resumeOffset);
+            }
+        }
+    }
+
+    @KafkaListener(topics = ORDERS_TOPIC, groupId = "${analytics.orders.group-id:order-analytics}")
+    public void consume(ConsumerRecord<String, String> record) {
+        try {
+            SagaOrder order = objectMapper.readValue(record.value(), SagaOrder.class);
+            analytics.record(record.partition(), record.offset(), record.timestamp(), order.getStatus(),
+                    order.getProductId(), order.getPrice(), order.getFailureReason());
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable order event at offset {}: {}", record.offset(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.shivamsrivastav.distributedpatterns.common.startup;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.kafka.annotation.KafkaListener;
+
+/**
+ * Keeps the beans that must run without being asked for out of lazy
+ * initialization ({@code spring.main.lazy-initialization}, enabled by the
+ * {@code fast-startup} profile).
+ * <p>
+ * Everything else, repositories and controllers included, is created on
+ * first use. {@code @Scheduled} beans such as the outbox relay are already
+ * excluded by Spring Boot; {@code @KafkaListener} beans are not, and a lazy
+ * listener would never subscribe.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter kafkaListenerBeans() {
+        return (beanName, beanDefinition, beanType) -> AnnotatedElementUtils.hasAnnotation(beanType,
+                KafkaListener.class) || !MethodIntrospector.selectMethods(beanType,
+                        (MethodIntrospector.MetadataLookup<KafkaListener>) method -> AnnotatedElementUtils
+                                .findMergedAnnotation(method, KafkaListener.class)).isEmpty();
+    }
+}
@@ -0,0 +1,92 @@
+package com.shivamsrivastav.distributedpatterns.common.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A timed operation within a trace. Times are epoch microseconds so spans
+ * from different threads and processes line up.
+ *
+ * @author Shivam Srivastav
+ */
+public class Span {
+
+    private final String name;
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final long startMicros;
+    private final long startNanos;
+    private long durationMicros;
+    private final Map<String, String> tags = new LinkedHashMap<>();
+
+    /**
+     * @param startNanos {@link System#nanoTime()} at the start, used for the
+     *                   duration of in-process spans; 0 for spans whose
+     *                   duration comes from wall-clock timestamps
+     */
+    public Span(String name, TraceContext context, String parentSpanId, long startMicros, long startNanos) {
+        this.name = name;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.startMicros = startMicros;
+        this.startNanos = startNanos;
+    }
+
+    public Span tag(String key, String value) {
+        tags.put(key, value);
+        return this;
+    }
+
+    void end(long endMicros) {
+        this.durationMicros = startNanos != 0
+                ? (System.nanoTime() - startNanos) / 1000
+                : Math.max(0, endMicros - startMicros);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @JsonIgnore
+    public TraceContext getContext() {
+        return context;
+    }
+
+    public String getTraceId() {
+        return context.getTraceId();
+    }
+
+    public String getSpanId() {
+        return context.getSpanId();
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public long getStartMicros() {
+        return startMicros;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{" +
+                "name='" + name + '\'' +
+                ", context=" + context +
+                ", parentSpanId='" + parentSpanId + '\'' +
+                ", startMicros=" + startMicros +
+                ", durationMicros=" + durationMicros +
+                ", tags=" + tags +
+                '}';
+    }
+}
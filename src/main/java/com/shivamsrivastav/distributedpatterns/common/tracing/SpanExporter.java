@@ -0,0 +1,110 @@
+package com.shivamsrivastav.distributedpatterns.common.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes finished spans to {@code tracing.export-file}, one JSON object per
+ * line — a stand-in for a trace collector.
+ * <p>
+ * Callers only enqueue; a background thread does the I/O. When the queue is
+ * full spans are dropped (and counted) rather than slowing the request down.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+public class SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(SpanExporter.class);
+
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Span> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public SpanExporter(TracingProperties properties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(properties.getExportQueueSize());
+        String exportFile = properties.getExportFile();
+        if (exportFile == null || exportFile.isBlank()) {
+            this.writer = null;
+            return;
+        }
+        Path path = Path.of(exportFile);
+        this.writer = new Thread(() -> writeLoop(path), "span-exporter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void export(Span span) {
+        if (writer != null && !queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void writeLoop(Path path) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+        } catch (IOException e) {
+            log.error("Cannot create span export directory for {}; spans will not be exported", path, e);
+            return;
+        }
+        List<Span> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Span first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch);
+                try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (Span span : batch) {
+                        out.write(objectMapper.writeValueAsString(span));
+                        out.newLine();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("Failed to export {} spans: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(2000);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.shivamsrivastav.distributedpatterns.common.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregated latency per trace stage (span name), published as
+ * {@code trace.stage.latency} and summarised for {@code /api/tracing/stages}.
+ * Only sampled spans are recorded, so the figures are a sample of all orders.
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+public class StageLatencyBreakdown {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Timer> stages = new ConcurrentHashMap<>();
+
+    public StageLatencyBreakdown(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String stage, long durationMicros) {
+        stages.computeIfAbsent(stage, key -> Timer.builder("trace.stage.latency")
+                .description("Latency of a stage of the order flow (sampled traces)")
+                .tag("stage", key)
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry))
+                .record(durationMicros, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * @return Per stage: count, mean, p50/p90/p99 and max in milliseconds
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        stages.forEach((stage, timer) -> {
+            HistogramSnapshot histogram = timer.takeSnapshot();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", histogram.count());
+            summary.put("meanMs", round(histogram.mean(TimeUnit.MILLISECONDS)));
+            for (ValueAtPercentile percentile : histogram.percentileValues()) {
+                summary.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                        round(percentile.value(TimeUnit.MILLISECONDS)));
+            }
+            summary.put("maxMs", round(histogram.max(TimeUnit.MILLISECONDS)));
+            snapshot.put(stage, summary);
+        });
+        return snapshot;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
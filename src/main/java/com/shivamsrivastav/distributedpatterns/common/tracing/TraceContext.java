@@ -0,0 +1,81 @@
+package com.shivamsrivastav.distributedpatterns.common.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Identity of a span within a trace, in W3C Trace Context form
+ * ({@code traceparent: 00-<trace-id>-<span-id>-<flags>}).
+ *
+ * @author Shivam Srivastav
+ */
+public class TraceContext {
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+
+    public TraceContext(String traceId, String spanId, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Starts a new trace.
+     */
+    public static TraceContext newRoot(boolean sampled) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new TraceContext(hex(random.nextLong()) + hex(random.nextLong()), newSpanId(), sampled);
+    }
+
+    /**
+     * @return Context of a new span in the same trace
+     */
+    public TraceContext newChild() {
+        return new TraceContext(traceId, newSpanId(), sampled);
+    }
+
+    /**
+     * @return The parsed context, or null if the header is missing or malformed
+     */
+    public static TraceContext parse(String traceParent) {
+        if (traceParent == null || traceParent.length() != 55) {
+            return null;
+        }
+        String[] parts = traceParent.split("-");
+        if (parts.length != 4 || parts[1].length() != 32 || parts[2].length() != 16) {
+            return null;
+        }
+        return new TraceContext(parts[1], parts[2], "01".equals(parts[3]));
+    }
+
+    public String toTraceParent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    private static String newSpanId() {
+        return hex(ThreadLocalRandom.current().nextLong());
+    }
+
+    private static String hex(long value) {
+        String hex = Long.toHexString(value);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    @Override
+    public String toString() {
+        return toTraceParent();
+    }
+}
@@ -0,0 +1,169 @@
+package com.shivamsrivastav.distributedpatterns.common.tracing;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Minimal tracer for the order flow.
+ * <p>
+ * A trace starts at the HTTP entry ({@link TracingFilter}) and its context
+ * is bound to the handling thread; in-process steps become child spans via
+ * {@link #inSpan}. Across asynchronous hops the context travels as a W3C
+ * {@code traceparent} string — on the saga and outbox rows and in Kafka
+ * headers — and is resumed there with an explicit parent.
+ * </p>
+ * The sampling decision is made once per trace. Unsampled traces still
+ * propagate their context (flag {@code 00}) so downstream hops agree, but
+ * create no spans, which keeps the cost of the unsampled majority to a
+ * thread-local lookup per step.
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@EnableConfigurationProperties(TracingProperties.class)
+public class Tracer {
+
+    private final TracingProperties properties;
+    private final SpanExporter exporter;
+    private final StageLatencyBreakdown breakdown;
+    private final ThreadLocal<TraceContext> current = new ThreadLocal<>();
+
+    public Tracer(TracingProperties properties, SpanExporter exporter, StageLatencyBreakdown breakdown) {
+        this.properties = properties;
+        this.exporter = exporter;
+        this.breakdown = breakdown;
+    }
+
+    /**
+     * Starts a span. With no parent a new trace is started and sampled at
+     * {@code tracing.sample-rate}.
+     *
+     * @return The span, or null if the trace is not sampled (or tracing is off)
+     */
+    public Span start(String name, TraceContext parent) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        TraceContext context = parent != null
+                ? parent.newChild()
+                : TraceContext.newRoot(ThreadLocalRandom.current().nextDouble() < properties.getSampleRate());
+        if (!context.isSampled()) {
+            // Bound via activate(...) so the decision still propagates
+            return new Span(name, context, null, 0, 0);
+        }
+        return new Span(name, context, parent == null ? null : parent.getSpanId(), nowMicros(), System.nanoTime());
+    }
+
+    /**
+     * Finishes a span, recording it in the stage breakdown and exporting it.
+     */
+    public void end(Span span) {
+        if (span == null || !span.getContext().isSampled()) {
+            return;
+        }
+        span.end(nowMicros());
+        breakdown.record(span.getName(), span.getDurationMicros());
+        exporter.export(span);
+    }
+
+    /**
+     * Binds a context to the calling thread.
+     *
+     * @return The previously bound context, for {@link #restore}
+     */
+    public TraceContext activate(TraceContext context) {
+        TraceContext previous = current.get();
+        current.set(context);
+        return previous;
+    }
+
+    public void restore(TraceContext previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    /**
+     * @return The context bound to the calling thread, or null
+     */
+    public TraceContext currentContext() {
+        return current.get();
+    }
+
+    /**
+     * @return {@code traceparent} of the current span, for carrying across an
+     *         asynchronous hop, or null outside a trace
+     */
+    public String currentTraceParent() {
+        TraceContext context = current.get();
+        return context == null ? null : context.toTraceParent();
+    }
+
+    /**
+     * Runs {@code work} as a child span of the current one; runs it untraced
+     * outside a sampled trace.
+     */
+    public <T> T inSpan(String name, Supplier<T> work) {
+        return inSpan(name, current.get(), work);
+    }
+
+    public void inSpan(String name, Runnable work) {
+        inSpan(name, current.get(), () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code work} as a child span of {@code parent}, e.g. a context
+     * read back from a row or a message header.
+     */
+    public <T> T inSpan(String name, TraceContext parent, Supplier<T> work) {
+        if (parent == null || !parent.isSampled() || !properties.isEnabled()) {
+            return work.get();
+        }
+        Span span = start(name, parent);
+        TraceContext previous = activate(span.getContext());
+        try {
+            return work.get();
+        } catch (RuntimeException e) {
+            span.tag("error", e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            restore(previous);
+            end(span);
+        }
+    }
+
+    public void inSpan(String name, TraceContext parent, Runnable work) {
+        inSpan(name, parent, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records a span whose boundaries were observed rather than timed, such
+     * as the time an event waited in the outbox or in a Kafka topic.
+     */
+    public void recordSpan(String name, TraceContext parent, long startMicros, long endMicros) {
+        if (parent == null || !parent.isSampled() || !properties.isEnabled()) {
+            return;
+        }
+        Span span = new Span(name, parent.newChild(), parent.getSpanId(), startMicros, 0);
+        span.end(endMicros);
+        breakdown.record(name, span.getDurationMicros());
+        exporter.export(span);
+    }
+
+    public static long nowMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1000;
+    }
+}
@@ -0,0 +1,22 @@
+package com.shivamsrivastav.distributedpatterns.common.tracing;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Starts traces at the saga's HTTP entry.
+ *
+ * @author Shivam Srivastav
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> sagaTracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration =
+                new FilterRegistrationBean<>(new TracingFilter(tracer, "http.saga"));
+        registration.addUrlPatterns("/api/saga/*");
+        return registration;
+    }
+}
@@ -0,0 +1,49 @@
+package com.shivamsrivastav.distributedpatterns.common.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Entry point of a trace: continues the caller's {@code traceparent} or
+ * starts a new trace, times the request as the root span and echoes the
+ * trace context in the response.
+ *
+ * @author Shivam Srivastav
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_PARENT_HEADER = "traceparent";
+
+    private final Tracer tracer;
+    private final String spanName;
+
+    public TracingFilter(Tracer tracer, String spanName) {
+        this.tracer = tracer;
+        this.spanName = spanName;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = tracer.start(spanName, TraceContext.parse(request.getHeader(TRACE_PARENT_HEADER)));
+        if (span == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        span.tag("http.method", request.getMethod()).tag("http.path", request.getRequestURI());
+        response.setHeader(TRACE_PARENT_HEADER, span.getContext().toTraceParent());
+        TraceContext previous = tracer.activate(span.getContext());
+        try {
+            chain.doFilter(request, response);
+            span.tag("http.status", Integer.toString(response.getStatus()));
+        } finally {
+            tracer.restore(previous);
+            tracer.end(span);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.shivamsrivastav.distributedpatterns.common.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the order-flow tracer.
+ *
+ * @author Shivam Srivastav
+ */
+@ConfigurationProperties(prefix = "tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction of new traces that are recorded; an incoming {@code traceparent}
+     * keeps the caller's decision.
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * File the finished spans are appended to, one JSON object per line;
+     * blank disables export (the stage breakdown still works).
+     */
+    private String exportFile = "logs/spans.jsonl";
+
+    /**
+     * Spans waiting to be written; further spans are dropped while it is full.
+     */
+    private int exportQueueSize = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public String getExportFile() {
+        return exportFile;
+    }
+
+    public void setExportFile(String exportFile) {
+        this.exportFile = exportFile;
+    }
+
+    public int getExportQueueSize() {
+        return exportQueueSize;
+    }
+
+    public void setExportQueueSize(int exportQueueSize) {
+        this.exportQueueSize = exportQueueSize;
+    }
+}
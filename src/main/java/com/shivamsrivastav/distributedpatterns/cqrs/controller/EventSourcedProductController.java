@@ -0,0 +1,65 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.controller;
+
+import com.shivamsrivastav.distributedpatterns.cqrs.model.Product;
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductAggregate;
+import com.shivamsrivastav.distributedpatterns.cqrs.service.EventSourcedProductCommandService;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Controller for the event-sourced Product write model.
+ *
+ * @author Shivam Srivastav
+ */
+@RestController
+@RequestMapping("/api/cqrs/es/products")
+public class EventSourcedProductController {
+
+    private final EventSourcedProductCommandService commandService;
+
+    public EventSourcedProductController(EventSourcedProductCommandService commandService) {
+        this.commandService = commandService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ProductAggregate> createProduct(@RequestBody Product product) {
+        return ResponseEntity.ok(commandService.createProduct(product.getName(), product.getDescription(),
+                product.getPrice(), product.getStock()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ProductAggregate> getProduct(@PathVariable String id) {
+        return ResponseEntity.ok(commandService.getProduct(id));
+    }
+
+    @PatchMapping("/{id}/price")
+    public ResponseEntity<ProductAggregate> changePrice(@PathVariable String id, @RequestParam BigDecimal price) {
+        return ResponseEntity.ok(commandService.changePrice(id, price));
+    }
+
+    @PatchMapping("/{id}/stock")
+    public ResponseEntity<ProductAggregate> adjustStock(@PathVariable String id, @RequestParam int delta) {
+        return ResponseEntity.ok(commandService.adjustStock(id, delta));
+    }
+
+    /**
+     * Batch price change; body is a JSON object of {@code id -> price}.
+     */
+    @PostMapping("/prices")
+    public ResponseEntity<Integer> changePrices(@RequestBody Map<String, BigDecimal> prices) {
+        return ResponseEntity.ok(commandService.changePrices(prices));
+    }
+
+    /**
+     * Another command appended the same sequence number first.
+     */
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<String> handleConflict(DuplicateKeyException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Product was modified concurrently, please retry");
+    }
+}
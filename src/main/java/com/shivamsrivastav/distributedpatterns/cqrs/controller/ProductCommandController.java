@@ -1,11 +1,21 @@
 package com.shivamsrivastav.distributedpatterns.cqrs.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivamsrivastav.distributedpatterns.cqrs.dto.BulkPriceUpdateResult;
+import com.shivamsrivastav.distributedpatterns.cqrs.dto.PriceUpdate;
 import com.shivamsrivastav.distributedpatterns.cqrs.model.Product;
+import com.shivamsrivastav.distributedpatterns.cqrs.service.ProductCommandBuffer;
 import com.shivamsrivastav.distributedpatterns.cqrs.service.ProductCommandService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for Write Operations (Commands).
@@ -17,9 +27,14 @@ import java.math.BigDecimal;
 public class ProductCommandController {
 
     private final ProductCommandService commandService;
+    private final ProductCommandBuffer commandBuffer;
+    private final ObjectMapper objectMapper;
 
-    public ProductCommandController(ProductCommandService commandService) {
+    public ProductCommandController(ProductCommandService commandService, ProductCommandBuffer commandBuffer,
+            ObjectMapper objectMapper) {
         this.commandService = commandService;
+        this.commandBuffer = commandBuffer;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -27,9 +42,48 @@ public class ProductCommandController {
         return ResponseEntity.ok(commandService.createProduct(product));
     }
 
+    /**
+     * Updates the price. With the command buffer enabled the write is coalesced
+     * with other updates for the same product and the response is sent once
+     * the flush has committed.
+     */
     @PatchMapping("/{id}/price")
-    public ResponseEntity<Void> updatePrice(@PathVariable Long id, @RequestParam BigDecimal price) {
+    public CompletableFuture<ResponseEntity<Void>> updatePrice(@PathVariable Long id,
+            @RequestParam BigDecimal price) {
+        if (commandBuffer.isEnabled()) {
+            return commandBuffer.submitPrice(id, price).thenApply(v -> ResponseEntity.ok().build());
+        }
         commandService.updatePrice(id, price);
-        return ResponseEntity.ok().build();
+        return CompletableFuture.completedFuture(ResponseEntity.ok().build());
+    }
+
+    @PatchMapping("/{id}/stock")
+    public CompletableFuture<ResponseEntity<Void>> adjustStock(@PathVariable Long id, @RequestParam int delta) {
+        if (commandBuffer.isEnabled()) {
+            return commandBuffer.submitStockDelta(id, delta).thenApply(v -> ResponseEntity.ok().build());
+        }
+        commandService.adjustStock(id, delta);
+        return CompletableFuture.completedFuture(ResponseEntity.ok().build());
+    }
+
+    /**
+     * Bulk price update. Accepts a JSON array or newline-delimited JSON of
+     * {@code {"id":..,"price":..}} objects; the body is parsed as a stream so
+     * the full list is never held in memory.
+     */
+    @PostMapping(value = "/prices", consumes = { "application/json", "application/x-ndjson" })
+    public ResponseEntity<BulkPriceUpdateResult> bulkUpdatePrices(InputStream body) throws IOException {
+        try (MappingIterator<PriceUpdate> updates = objectMapper.readerFor(PriceUpdate.class).readValues(body)) {
+            return ResponseEntity.ok(commandService.bulkUpdatePrices(updates));
+        }
+    }
+
+    /**
+     * A direct write raced with another write (or a buffer flush) on the same
+     * product; the client should re-read and retry.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(ObjectOptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Product was modified concurrently, please retry");
     }
 }
@@ -4,11 +4,18 @@ import com.shivamsrivastav.distributedpatterns.cqrs.model.Product;
 import com.shivamsrivastav.distributedpatterns.cqrs.service.ProductQueryService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Controller for Read Operations (Queries).
+ * <p>
+ * Responses carry strong ETags derived from version counters. A poll with a
+ * matching {@code If-None-Match} is answered with 304 after a single version
+ * lookup, without loading or serializing any product.
+ * </p>
  *
  * @author Shivam Srivastav
  */
@@ -23,12 +30,31 @@ public class ProductQueryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(queryService.getAllProducts());
+    public ResponseEntity<List<Product>> getAllProducts(WebRequest request) {
+        String etag = catalogEtag(queryService.getCatalogVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(queryService.getAllProducts());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProduct(@PathVariable Long id) {
-        return ResponseEntity.ok(queryService.getProductById(id));
+    public ResponseEntity<Product> getProduct(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = queryService.getProductVersion(id);
+        if (version.isPresent() && request.checkNotModified(productEtag(id, version.get()))) {
+            return null;
+        }
+        // ETag from the loaded row, in case it changed after the version check
+        Product product = queryService.getProductById(id);
+        long loadedVersion = product.getVersion() == null ? 0 : product.getVersion();
+        return ResponseEntity.ok().eTag(productEtag(id, loadedVersion)).body(product);
+    }
+
+    private static String productEtag(Long id, long version) {
+        return "\"p" + id + "-" + version + "\"";
+    }
+
+    private static String catalogEtag(long version) {
+        return "\"c" + version + "\"";
     }
 }
@@ -0,0 +1,99 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a Bulk Price Update Command.
+ * <p>
+ * Ids that did not match any product, and elements that were rejected
+ * (missing id or price, negative price), are counted instead of failing the
+ * whole command. Only the first {@value #MAX_REPORTED} of each are listed, so
+ * the response stays small however large the request was.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class BulkPriceUpdateResult {
+
+    public static final int MAX_REPORTED = 100;
+
+    private long requested;
+    private long updated;
+    private int chunks;
+    private long missing;
+    private long rejected;
+    private final List<Long> missingIds = new ArrayList<>();
+    private final List<Long> rejectedIndexes = new ArrayList<>();
+
+    /**
+     * Records an id that matched no product.
+     */
+    public void miss(Long id) {
+        missing++;
+        if (missingIds.size() < MAX_REPORTED) {
+            missingIds.add(id);
+        }
+    }
+
+    /**
+     * Records an invalid element by its zero-based position in the request.
+     */
+    public void reject(long index) {
+        rejected++;
+        if (rejectedIndexes.size() < MAX_REPORTED) {
+            rejectedIndexes.add(index);
+        }
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public void setRequested(long requested) {
+        this.requested = requested;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getMissing() {
+        return missing;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public List<Long> getRejectedIndexes() {
+        return rejectedIndexes;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkPriceUpdateResult{" +
+                "requested=" + requested +
+                ", updated=" + updated +
+                ", chunks=" + chunks +
+                ", missing=" + missing +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
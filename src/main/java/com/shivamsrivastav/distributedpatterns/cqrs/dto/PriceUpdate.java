@@ -0,0 +1,46 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A single (id, price) pair of a Bulk Price Update Command.
+ *
+ * @author Shivam Srivastav
+ */
+public class PriceUpdate {
+
+    private Long id;
+    private BigDecimal price;
+
+    public PriceUpdate() {
+    }
+
+    public PriceUpdate(Long id, BigDecimal price) {
+        this.id = id;
+        this.price = price;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceUpdate{" +
+                "id=" + id +
+                ", price=" + price +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Single-row counter bumped by every product command.
+ * <p>
+ * Lets the query side derive an ETag for the whole catalog without reading
+ * the product table.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Entity
+@Table(name = "cqrs_catalog_version")
+public class CatalogVersion {
+
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long version;
+
+    public CatalogVersion() {
+    }
+
+    public CatalogVersion(Long id, long version) {
+        this.id = id;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogVersion{" +
+                "id=" + id +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -1,10 +1,13 @@
 package com.shivamsrivastav.distributedpatterns.cqrs.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.util.Objects;
 
@@ -26,6 +29,24 @@ public class Product {
     private BigDecimal price;
     private Integer stock;
 
+    /**
+     * Aggregate id when the row is the projection of an event-sourced product
+     * ({@code /api/cqrs/es/products}); null for products written directly.
+     */
+    @Column(unique = true)
+    private String eventSourcedId;
+
+    /**
+     * Optimistic concurrency token; bumped on every write, including the
+     * set-based updates issued by the bulk and buffered commands. The column
+     * default gives rows from before the column existed version 0 when
+     * {@code ddl-auto=update} adds it.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Product() {
     }
 
@@ -77,6 +98,22 @@ public class Product {
         this.stock = stock;
     }
 
+    public String getEventSourcedId() {
+        return eventSourcedId;
+    }
+
+    public void setEventSourcedId(String eventSourcedId) {
+        this.eventSourcedId = eventSourcedId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -100,6 +137,8 @@ public class Product {
                 ", description='" + description + '\'' +
                 ", price=" + price +
                 ", stock=" + stock +
+                ", eventSourcedId='" + eventSourcedId + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,108 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.model;
+
+import java.math.BigDecimal;
+
+/**
+ * In-memory state of an event-sourced Product, rebuilt by applying its
+ * events in sequence order.
+ *
+ * @author Shivam Srivastav
+ */
+public class ProductAggregate {
+
+    private final String id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private int stock;
+    private long version;
+
+    public ProductAggregate(String id) {
+        this.id = id;
+    }
+
+    public static ProductAggregate fromSnapshot(ProductSnapshot snapshot) {
+        ProductAggregate aggregate = new ProductAggregate(snapshot.getProductId());
+        aggregate.name = snapshot.getName();
+        aggregate.description = snapshot.getDescription();
+        aggregate.price = snapshot.getPrice();
+        aggregate.stock = snapshot.getStock() == null ? 0 : snapshot.getStock();
+        aggregate.version = snapshot.getVersion();
+        return aggregate;
+    }
+
+    /**
+     * Applies one event. Events must arrive in sequence order.
+     *
+     * @param event The next event of this aggregate
+     */
+    public void apply(ProductEvent event) {
+        if (event.getSequenceNumber() != version + 1) {
+            throw new IllegalStateException("Out of order event " + event.getSequenceNumber() + " for Product "
+                    + id + " at version " + version);
+        }
+        switch (event.getEventType()) {
+            case PRODUCT_CREATED:
+                name = event.getName();
+                description = event.getDescription();
+                price = event.getPrice();
+                stock = event.getStockDelta() == null ? 0 : event.getStockDelta();
+                break;
+            case PRICE_CHANGED:
+                price = event.getPrice();
+                break;
+            case STOCK_ADJUSTED:
+                stock += event.getStockDelta();
+                break;
+            default:
+                throw new IllegalStateException("Unknown event type " + event.getEventType());
+        }
+        version = event.getSequenceNumber();
+    }
+
+    public ProductSnapshot toSnapshot() {
+        ProductSnapshot snapshot = new ProductSnapshot();
+        snapshot.setProductId(id);
+        snapshot.setVersion(version);
+        snapshot.setName(name);
+        snapshot.setDescription(description);
+        snapshot.setPrice(price);
+        snapshot.setStock(stock);
+        return snapshot;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductAggregate{" +
+                "id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                ", price=" + price +
+                ", stock=" + stock +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,155 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Append-only event of the event-sourced Product write model.
+ * <p>
+ * Events are never updated. The unique (productId, sequenceNumber) constraint is the
+ * optimistic concurrency check: two commands appending the same next sequence
+ * for an aggregate cannot both succeed. Event data is kept in plain columns
+ * rather than a JSON payload so replay does not pay for deserialization.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Entity
+@Table(name = "cqrs_product_events", uniqueConstraints = @UniqueConstraint(name = "uk_product_event_sequence", columnNames = {
+        "productId", "sequenceNumber" }))
+public class ProductEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String productId;
+
+    @Column(nullable = false)
+    private long sequenceNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ProductEventType eventType;
+
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer stockDelta;
+
+    private LocalDateTime createdAt;
+
+    public ProductEvent() {
+    }
+
+    public ProductEvent(String productId, long sequenceNumber, ProductEventType eventType) {
+        this.productId = productId;
+        this.sequenceNumber = sequenceNumber;
+        this.eventType = eventType;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public void setSequenceNumber(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
+
+    public ProductEventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(ProductEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getStockDelta() {
+        return stockDelta;
+    }
+
+    public void setStockDelta(Integer stockDelta) {
+        this.stockDelta = stockDelta;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        ProductEvent that = (ProductEvent) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ProductEvent{" +
+                "id=" + id +
+                ", productId='" + productId + '\'' +
+                ", sequenceNumber=" + sequenceNumber +
+                ", eventType=" + eventType +
+                ", name='" + name + '\'' +
+                ", price=" + price +
+                ", stockDelta=" + stockDelta +
+                '}';
+    }
+}
@@ -0,0 +1,12 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.model;
+
+/**
+ * Types of events in the event-sourced Product write model.
+ *
+ * @author Shivam Srivastav
+ */
+public enum ProductEventType {
+    PRODUCT_CREATED,
+    PRICE_CHANGED,
+    STOCK_ADJUSTED
+}
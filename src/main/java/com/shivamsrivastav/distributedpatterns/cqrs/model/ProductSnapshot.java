@@ -0,0 +1,131 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Snapshot of a Product aggregate as of event {@code version}.
+ * <p>
+ * Snapshots are appended, never overwritten; rehydration starts from the
+ * newest one and replays only the events after it.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Entity
+@Table(name = "cqrs_product_snapshots", indexes = @Index(name = "idx_product_snapshot_version", columnList = "productId, version"))
+public class ProductSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String productId;
+
+    @Column(nullable = false)
+    private long version;
+
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer stock;
+
+    private LocalDateTime createdAt;
+
+    public ProductSnapshot() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        ProductSnapshot that = (ProductSnapshot) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "ProductSnapshot{" +
+                "id=" + id +
+                ", productId='" + productId + '\'' +
+                ", version=" + version +
+                ", price=" + price +
+                ", stock=" + stock +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.repository;
+
+import com.shivamsrivastav.distributedpatterns.cqrs.model.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for the catalog-level version counter.
+ *
+ * @author Shivam Srivastav
+ */
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    /**
+     * Increments the counter in place.
+     *
+     * @return 1 if the row exists, 0 otherwise
+     */
+    @Modifying
+    @Query("update CatalogVersion c set c.version = c.version + 1 where c.id = 1")
+    int increment();
+
+    @Query("select c.version from CatalogVersion c where c.id = 1")
+    Optional<Long> findCurrentVersion();
+}
@@ -2,8 +2,11 @@ package com.shivamsrivastav.distributedpatterns.cqrs.repository;
 
 import com.shivamsrivastav.distributedpatterns.cqrs.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 /**
  * Repository for Product Write Model.
  *
@@ -11,4 +14,13 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    /**
+     * Reads only the version column, without hydrating the entity.
+     *
+     * @param id Product ID
+     * @return The version, or empty if the product does not exist
+     */
+    @Query("select p.version from Product p where p.id = :id")
+    Optional<Long> findVersionById(Long id);
 }
@@ -0,0 +1,91 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.service;
+
+import com.shivamsrivastav.distributedpatterns.cqrs.model.CatalogVersion;
+import com.shivamsrivastav.distributedpatterns.cqrs.repository.CatalogVersionRepository;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the catalog-level version used for list ETags.
+ * <p>
+ * The counter is incremented inside the transaction that writes the products,
+ * so it commits or rolls back with them and a list ETag never outlives the
+ * data it was computed for. Writers take the counter row's lock as the last
+ * statement of their transaction, which keeps the time they queue on it
+ * short. The row is created when the context starts, ahead of the web server
+ * and the Kafka listener containers; the fast-startup archive's training run
+ * stops before that and needs no database.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Service
+public class CatalogVersionService implements SmartLifecycle {
+
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private volatile boolean running;
+
+    public CatalogVersionService(CatalogVersionRepository catalogVersionRepository,
+            PlatformTransactionManager transactionManager) {
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void start() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> createIfMissing());
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the row first
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Ahead of the web server and the Kafka listener containers, whose phases
+     * are close to {@link Integer#MAX_VALUE}.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * Bumps the catalog version as part of the caller's transaction, so
+     * nothing changes if it rolls back.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump() {
+        if (catalogVersionRepository.increment() == 0) {
+            // Row removed since start
+            catalogVersionRepository.saveAndFlush(new CatalogVersion(CatalogVersion.SINGLETON_ID, 1));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long currentVersion() {
+        return catalogVersionRepository.findCurrentVersion().orElse(0L);
+    }
+
+    private void createIfMissing() {
+        if (catalogVersionRepository.findCurrentVersion().isEmpty()) {
+            catalogVersionRepository.saveAndFlush(new CatalogVersion(CatalogVersion.SINGLETON_ID, 0));
+        }
+    }
+}
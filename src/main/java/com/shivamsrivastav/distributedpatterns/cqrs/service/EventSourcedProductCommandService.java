@@ -0,0 +1,134 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.service;
+
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductAggregate;
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductEvent;
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductEventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Event-sourced variant of the CQRS Command Service.
+ * <p>
+ * Instead of overwriting a row, every command is validated against the
+ * rehydrated aggregate and recorded as a new {@link ProductEvent}. The full
+ * history is kept and writes are pure INSERTs. The resulting state is
+ * projected into {@code cqrs_products} in the same transaction, so the query
+ * side serves event-sourced products too.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Service
+public class EventSourcedProductCommandService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSourcedProductCommandService.class);
+
+    private final ProductEventStore eventStore;
+    private final ProductProjection projection;
+
+    public EventSourcedProductCommandService(ProductEventStore eventStore, ProductProjection projection) {
+        this.eventStore = eventStore;
+        this.projection = projection;
+    }
+
+    /**
+     * Handle Create Product Command.
+     *
+     * @return The new aggregate
+     */
+    @Transactional
+    public ProductAggregate createProduct(String name, String description, BigDecimal price, Integer stock) {
+        ProductAggregate aggregate = new ProductAggregate(UUID.randomUUID().toString());
+        log.info("Handling event-sourced Create Product Command for: {} ({})", name, aggregate.getId());
+
+        ProductEvent event = new ProductEvent(aggregate.getId(), 1, ProductEventType.PRODUCT_CREATED);
+        event.setName(name);
+        event.setDescription(description);
+        event.setPrice(price);
+        event.setStockDelta(stock == null ? 0 : stock);
+        aggregate.apply(event);
+
+        eventStore.append(List.of(event), List.of(aggregate));
+        projection.project(List.of(aggregate));
+        return aggregate;
+    }
+
+    /**
+     * Handle Change Price Command.
+     */
+    @Transactional
+    public ProductAggregate changePrice(String id, BigDecimal newPrice) {
+        ProductAggregate aggregate = load(id);
+        ProductEvent event = priceChanged(aggregate, newPrice);
+        eventStore.append(List.of(event), List.of(aggregate));
+        projection.project(List.of(aggregate));
+        return aggregate;
+    }
+
+    /**
+     * Handle Adjust Stock Command.
+     */
+    @Transactional
+    public ProductAggregate adjustStock(String id, int delta) {
+        ProductAggregate aggregate = load(id);
+        if (aggregate.getStock() + delta < 0) {
+            throw new IllegalArgumentException("Insufficient stock for Product " + id);
+        }
+        ProductEvent event = new ProductEvent(id, aggregate.getVersion() + 1, ProductEventType.STOCK_ADJUSTED);
+        event.setStockDelta(delta);
+        aggregate.apply(event);
+        eventStore.append(List.of(event), List.of(aggregate));
+        projection.project(List.of(aggregate));
+        return aggregate;
+    }
+
+    /**
+     * Handle a batch of Change Price Commands; all events are appended in one
+     * JDBC batch.
+     *
+     * @param prices New price per aggregate id
+     * @return Number of events appended
+     */
+    @Transactional
+    public int changePrices(Map<String, BigDecimal> prices) {
+        List<ProductEvent> events = new ArrayList<>(prices.size());
+        List<ProductAggregate> aggregates = new ArrayList<>(prices.size());
+        prices.forEach((id, price) -> {
+            ProductAggregate aggregate = load(id);
+            events.add(priceChanged(aggregate, price));
+            aggregates.add(aggregate);
+        });
+        eventStore.append(events, aggregates);
+        projection.project(aggregates);
+        return events.size();
+    }
+
+    @Transactional(readOnly = true)
+    public ProductAggregate getProduct(String id) {
+        return load(id);
+    }
+
+    private ProductAggregate load(String id) {
+        ProductAggregate aggregate = eventStore.load(id, true);
+        if (aggregate == null) {
+            throw new RuntimeException("Product not found");
+        }
+        return aggregate;
+    }
+
+    private ProductEvent priceChanged(ProductAggregate aggregate, BigDecimal newPrice) {
+        ProductEvent event = new ProductEvent(aggregate.getId(), aggregate.getVersion() + 1,
+                ProductEventType.PRICE_CHANGED);
+        event.setPrice(newPrice);
+        aggregate.apply(event);
+        return event;
+    }
+}
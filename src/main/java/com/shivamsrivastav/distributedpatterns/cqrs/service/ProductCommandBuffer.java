@@ -0,0 +1,189 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer that coalesces hot-product commands.
+ * <p>
+ * Price and stock commands for the same product arriving within one window
+ * ({@code cqrs.command-buffer.window-ms}) are merged: the last price wins and
+ * stock deltas are summed. Each window is flushed as a single JDBC batch with
+ * one UPDATE per product, so a flash sale costs one row lock per product per
+ * window instead of one per request. Callers get a future that completes only
+ * after the flush transaction has committed.
+ * </p>
+ * Disabled by default ({@code cqrs.command-buffer.enabled}); when off the
+ * controller keeps calling {@link ProductCommandService} directly. Windows
+ * are flushed by the buffer's own thread, so the shared {@code @Scheduled}
+ * thread (the outbox relay) never delays a flush, nor a flush the relay.
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+public class ProductCommandBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCommandBuffer.class);
+
+    private static final String FLUSH_SQL = "UPDATE cqrs_products SET price = COALESCE(?, price), "
+            + "stock = COALESCE(stock, 0) + ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogVersionService catalogVersionService;
+    private final boolean enabled;
+    private final ScheduledExecutorService flusher;
+
+    private final ConcurrentHashMap<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+
+    public ProductCommandBuffer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            CatalogVersionService catalogVersionService,
+            @Value("${cqrs.command-buffer.enabled:false}") boolean enabled,
+            @Value("${cqrs.command-buffer.window-ms:50}") long windowMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogVersionService = catalogVersionService;
+        this.enabled = enabled;
+        if (enabled) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "product-command-buffer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushSafely, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers a price change (last writer wins within the window).
+     *
+     * @return Future completed once the coalesced write is durable
+     */
+    public CompletableFuture<Void> submitPrice(Long id, BigDecimal price) {
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        pending.compute(id, (key, write) -> {
+            PendingWrite merged = write == null ? new PendingWrite() : write;
+            merged.price = price;
+            merged.waiters.add(ack);
+            return merged;
+        });
+        return ack;
+    }
+
+    /**
+     * Buffers a stock change (deltas are summed within the window).
+     *
+     * @return Future completed once the coalesced write is durable
+     */
+    public CompletableFuture<Void> submitStockDelta(Long id, int delta) {
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        pending.compute(id, (key, write) -> {
+            PendingWrite merged = write == null ? new PendingWrite() : write;
+            merged.stockDelta += delta;
+            merged.waiters.add(ack);
+            return merged;
+        });
+        return ack;
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // A periodic task that throws is never run again
+            log.error("Product command buffer flush failed", e);
+        }
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Detach the current window; writers arriving now start the next one
+        List<Map.Entry<Long, PendingWrite>> window = new ArrayList<>(pending.size());
+        for (Long id : pending.keySet()) {
+            PendingWrite write = pending.remove(id);
+            if (write != null) {
+                window.add(Map.entry(id, write));
+            }
+        }
+        if (window.isEmpty()) {
+            return;
+        }
+
+        int[][] counts;
+        try {
+            counts = transactionTemplate.execute(status -> {
+                int[][] result = jdbcTemplate.batchUpdate(FLUSH_SQL, window, window.size(), (ps, entry) -> {
+                    ps.setBigDecimal(1, entry.getValue().price);
+                    ps.setInt(2, entry.getValue().stockDelta);
+                    ps.setLong(3, entry.getKey());
+                });
+                catalogVersionService.bump();
+                return result;
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} buffered product commands", window.size(), e);
+            window.forEach(entry -> entry.getValue().waiters.forEach(ack -> ack.completeExceptionally(e)));
+            return;
+        }
+
+        int i = 0;
+        int coalesced = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                PendingWrite write = window.get(i++).getValue();
+                coalesced += write.waiters.size();
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    write.waiters.forEach(ack -> ack.complete(null));
+                } else {
+                    RuntimeException notFound = new RuntimeException("Product not found");
+                    write.waiters.forEach(ack -> ack.completeExceptionally(notFound));
+                }
+            }
+        }
+        log.debug("Flushed {} product writes coalesced from {} commands", window.size(), coalesced);
+    }
+
+    @PreDestroy
+    public void drain() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        flush();
+    }
+
+    /**
+     * Merged state of all commands for one product in the current window.
+     * Only mutated inside {@link ConcurrentHashMap#compute}.
+     */
+    private static final class PendingWrite {
+        private BigDecimal price;
+        private int stockDelta;
+        private final List<CompletableFuture<Void>> waiters = new ArrayList<>(4);
+    }
+}
@@ -1,11 +1,22 @@
 package com.shivamsrivastav.distributedpatterns.cqrs.service;
 
+import com.shivamsrivastav.distributedpatterns.cqrs.dto.BulkPriceUpdateResult;
+import com.shivamsrivastav.distributedpatterns.cqrs.dto.PriceUpdate;
 import com.shivamsrivastav.distributedpatterns.cqrs.model.Product;
 import com.shivamsrivastav.distributedpatterns.cqrs.repository.ProductRepository;
+import com.shivamsrivastav.distributedpatterns.outbox.service.OutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * Command Service for CQRS.
@@ -21,10 +32,32 @@ public class ProductCommandService {
 
     private static final Logger log = LoggerFactory.getLogger(ProductCommandService.class);
 
+    private static final String UPDATE_PRICE_SQL = "UPDATE cqrs_products SET price = ?, version = version + 1 WHERE id = ?";
+
+    /**
+     * Key of the PRODUCT_PRICES_UPDATED events: one fixed key keeps every
+     * bulk repricing on the same partition, so consumers apply them in commit
+     * order.
+     */
+    private static final String BULK_PRICE_AGGREGATE_ID = "catalog";
+
     private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final CatalogVersionService catalogVersionService;
+    private final int bulkChunkSize;
 
-    public ProductCommandService(ProductRepository productRepository) {
+    public ProductCommandService(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, OutboxService outboxService,
+            CatalogVersionService catalogVersionService,
+            @Value("${cqrs.bulk-price-update.chunk-size:500}") int bulkChunkSize) {
         this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxService = outboxService;
+        this.catalogVersionService = catalogVersionService;
+        this.bulkChunkSize = bulkChunkSize;
     }
 
     /**
@@ -36,7 +69,9 @@ public class ProductCommandService {
     @Transactional
     public Product createProduct(Product product) {
         log.info("Handling Create Product Command for: {}", product.getName());
-        return productRepository.save(product);
+        Product saved = productRepository.saveAndFlush(product);
+        catalogVersionService.bump();
+        return saved;
     }
 
     /**
@@ -51,6 +86,101 @@ public class ProductCommandService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         product.setPrice(newPrice);
-        productRepository.save(product);
+        productRepository.saveAndFlush(product);
+        catalogVersionService.bump();
+    }
+
+    /**
+     * Handle Adjust Stock Command.
+     *
+     * @param id    Product ID
+     * @param delta Quantity to add (negative to remove)
+     */
+    @Transactional
+    public void adjustStock(Long id, int delta) {
+        log.info("Handling Adjust Stock Command for ID: {} (delta {})", id, delta);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        int current = product.getStock() == null ? 0 : product.getStock();
+        product.setStock(current + delta);
+        productRepository.saveAndFlush(product);
+        catalogVersionService.bump();
+    }
+
+    /**
+     * Handle Bulk Price Update Command.
+     * <p>
+     * Consumes the updates lazily and applies them in chunks of
+     * {@code cqrs.bulk-price-update.chunk-size}. Each chunk is one JDBC batch of
+     * set-based UPDATEs (no entity is loaded) plus one PRODUCT_PRICES_UPDATED
+     * outbox event, committed in its own transaction so a large repricing run
+     * never holds a single long transaction.
+     * </p>
+     * <p>
+     * Chunks already committed stay committed, so a bad element does not fail
+     * the command half-way: elements without an id or price, or with a
+     * negative price, are skipped and reported as rejected.
+     * </p>
+     *
+     * @param updates Stream of (id, price) pairs
+     * @return Counts, and the first rejected elements and unmatched ids
+     */
+    public BulkPriceUpdateResult bulkUpdatePrices(Iterator<PriceUpdate> updates) {
+        BulkPriceUpdateResult result = new BulkPriceUpdateResult();
+        List<PriceUpdate> chunk = new ArrayList<>(bulkChunkSize);
+
+        long index = 0;
+        while (updates.hasNext()) {
+            PriceUpdate update = updates.next();
+            if (update.getId() == null || update.getPrice() == null || update.getPrice().signum() < 0) {
+                result.reject(index++);
+                continue;
+            }
+            index++;
+            chunk.add(update);
+            if (chunk.size() == bulkChunkSize) {
+                applyChunk(chunk, result);
+                chunk = new ArrayList<>(bulkChunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, result);
+        }
+
+        log.info("Bulk Price Update Command finished: {}", result);
+        return result;
+    }
+
+    private void applyChunk(List<PriceUpdate> chunk, BulkPriceUpdateResult result) {
+        List<PriceUpdate> applied = transactionTemplate.execute(status -> {
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_PRICE_SQL, chunk, chunk.size(), (ps, update) -> {
+                ps.setBigDecimal(1, update.getPrice());
+                ps.setLong(2, update.getId());
+            });
+
+            List<PriceUpdate> changed = new ArrayList<>(chunk.size());
+            int i = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    PriceUpdate update = chunk.get(i++);
+                    if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                        changed.add(update);
+                    } else {
+                        result.miss(update.getId());
+                    }
+                }
+            }
+
+            if (!changed.isEmpty()) {
+                outboxService.saveEvent("PRODUCT", BULK_PRICE_AGGREGATE_ID, "PRODUCT_PRICES_UPDATED", changed);
+                catalogVersionService.bump();
+            }
+            return changed;
+        });
+
+        result.setRequested(result.getRequested() + chunk.size());
+        result.setUpdated(result.getUpdated() + applied.size());
+        result.setChunks(result.getChunks() + 1);
+        log.debug("Applied price chunk of {} ({} updated)", chunk.size(), applied.size());
     }
 }
@@ -0,0 +1,156 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.service;
+
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductAggregate;
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductEvent;
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductEventType;
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only store for the event-sourced Product write model.
+ * <p>
+ * The {@link ProductEvent} and {@link ProductSnapshot} entities only define
+ * the schema; reads and writes go through plain JDBC so appends can be sent
+ * as one batch and replay can apply rows straight to the aggregate without
+ * building a persistence context.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Service
+public class ProductEventStore {
+
+    private static final String INSERT_EVENT_SQL = "INSERT INTO cqrs_product_events "
+            + "(product_id, sequence_number, event_type, name, description, price, stock_delta, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SNAPSHOT_SQL = "INSERT INTO cqrs_product_snapshots "
+            + "(product_id, version, name, description, price, stock, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_EVENTS_SQL = "SELECT sequence_number, event_type, name, description, price, "
+            + "stock_delta FROM cqrs_product_events WHERE product_id = ? AND sequence_number > ? "
+            + "ORDER BY sequence_number";
+
+    private static final String SELECT_LATEST_SNAPSHOT_SQL = "SELECT version, name, description, price, stock "
+            + "FROM cqrs_product_snapshots WHERE product_id = ? ORDER BY version DESC LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int snapshotEvery;
+
+    public ProductEventStore(JdbcTemplate jdbcTemplate,
+            @Value("${cqrs.event-sourcing.snapshot-every:50}") int snapshotEvery) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    /**
+     * Appends events (possibly for many aggregates) as a single JDBC batch and
+     * writes a snapshot for every aggregate whose new version crossed a
+     * multiple of {@code cqrs.event-sourcing.snapshot-every}.
+     *
+     * @param events     New events, already applied to their aggregates
+     * @param aggregates The aggregates after applying the events
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<ProductEvent> events, List<ProductAggregate> aggregates) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getProductId());
+            ps.setLong(2, event.getSequenceNumber());
+            ps.setString(3, event.getEventType().name());
+            ps.setString(4, event.getName());
+            ps.setString(5, event.getDescription());
+            ps.setBigDecimal(6, event.getPrice());
+            ps.setObject(7, event.getStockDelta());
+            ps.setTimestamp(8, Timestamp.valueOf(event.getCreatedAt()));
+        });
+
+        Map<String, Long> firstNewSequence = events.stream().collect(
+                Collectors.toMap(ProductEvent::getProductId, ProductEvent::getSequenceNumber, Math::min));
+        List<ProductSnapshot> snapshots = new ArrayList<>();
+        for (ProductAggregate aggregate : aggregates) {
+            Long first = firstNewSequence.get(aggregate.getId());
+            if (first != null && aggregate.getVersion() / snapshotEvery > (first - 1) / snapshotEvery) {
+                snapshots.add(aggregate.toSnapshot());
+            }
+        }
+        if (!snapshots.isEmpty()) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, snapshots, snapshots.size(), (ps, snapshot) -> {
+                ps.setString(1, snapshot.getProductId());
+                ps.setLong(2, snapshot.getVersion());
+                ps.setString(3, snapshot.getName());
+                ps.setString(4, snapshot.getDescription());
+                ps.setBigDecimal(5, snapshot.getPrice());
+                ps.setObject(6, snapshot.getStock());
+                ps.setTimestamp(7, now);
+            });
+        }
+    }
+
+    /**
+     * Removes an aggregate's events and snapshots.
+     *
+     * @param productId Aggregate id
+     */
+    @Transactional
+    public void delete(String productId) {
+        jdbcTemplate.update("DELETE FROM cqrs_product_snapshots WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM cqrs_product_events WHERE product_id = ?", productId);
+    }
+
+    /**
+     * Rehydrates an aggregate from its latest snapshot plus the events after it.
+     *
+     * @param productId   Aggregate id
+     * @param useSnapshot false to replay the full history (benchmarking only)
+     * @return The aggregate, or null if it has no events
+     */
+    @Transactional(readOnly = true)
+    public ProductAggregate load(String productId, boolean useSnapshot) {
+        ProductAggregate aggregate = null;
+        if (useSnapshot) {
+            aggregate = jdbcTemplate.query(SELECT_LATEST_SNAPSHOT_SQL, rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                ProductSnapshot snapshot = new ProductSnapshot();
+                snapshot.setProductId(productId);
+                snapshot.setVersion(rs.getLong("version"));
+                snapshot.setName(rs.getString("name"));
+                snapshot.setDescription(rs.getString("description"));
+                snapshot.setPrice(rs.getBigDecimal("price"));
+                snapshot.setStock(rs.getInt("stock"));
+                return ProductAggregate.fromSnapshot(snapshot);
+            }, productId);
+        }
+
+        ProductAggregate target = aggregate != null ? aggregate : new ProductAggregate(productId);
+        ProductEvent event = new ProductEvent();
+        event.setProductId(productId);
+        jdbcTemplate.query(SELECT_EVENTS_SQL, rs -> {
+            event.setSequenceNumber(rs.getLong(1));
+            event.setEventType(ProductEventType.valueOf(rs.getString(2)));
+            event.setName(rs.getString(3));
+            event.setDescription(rs.getString(4));
+            event.setPrice(rs.getBigDecimal(5));
+            int stockDelta = rs.getInt(6);
+            event.setStockDelta(rs.wasNull() ? null : stockDelta);
+            target.apply(event);
+        }, productId, target.getVersion());
+
+        return target.getVersion() == 0 ? null : target;
+    }
+}
@@ -0,0 +1,79 @@
+package com.shivamsrivastav.distributedpatterns.cqrs.service;
+
+import com.shivamsrivastav.distributedpatterns.cqrs.model.ProductAggregate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Projects event-sourced products into the {@code cqrs_products} read table.
+ * <p>
+ * Runs in the command's transaction, so a product is visible to the query
+ * side (and changes the catalog ETag) as soon as its events commit. The row
+ * is matched by {@code event_sourced_id}; aggregates that have no row yet,
+ * new ones or ones written before the projection existed, are inserted.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+public class ProductProjection {
+
+    private static final String UPDATE_SQL = "UPDATE cqrs_products SET name = ?, description = ?, price = ?, "
+            + "stock = ?, version = version + 1 WHERE event_sourced_id = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO cqrs_products "
+            + "(event_sourced_id, name, description, price, stock, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogVersionService catalogVersionService;
+
+    public ProductProjection(JdbcTemplate jdbcTemplate, CatalogVersionService catalogVersionService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogVersionService = catalogVersionService;
+    }
+
+    /**
+     * Writes the current state of the aggregates to the read table.
+     *
+     * @param aggregates Aggregates after their new events were applied
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void project(List<ProductAggregate> aggregates) {
+        if (aggregates.isEmpty()) {
+            return;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, aggregates, aggregates.size(), (ps, aggregate) -> {
+            ps.setString(1, aggregate.getName());
+            ps.setString(2, aggregate.getDescription());
+            ps.setBigDecimal(3, aggregate.getPrice());
+            ps.setInt(4, aggregate.getStock());
+            ps.setString(5, aggregate.getId());
+        });
+
+        List<ProductAggregate> missing = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                ProductAggregate aggregate = aggregates.get(i++);
+                if (count == 0) {
+                    missing.add(aggregate);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, aggregate) -> {
+                ps.setString(1, aggregate.getId());
+                ps.setString(2, aggregate.getName());
+                ps.setString(3, aggregate.getDescription());
+                ps.setBigDecimal(4, aggregate.getPrice());
+                ps.setInt(5, aggregate.getStock());
+            });
+        }
+        catalogVersionService.bump();
+    }
+}
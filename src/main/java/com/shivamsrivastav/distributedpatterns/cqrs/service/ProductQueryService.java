@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Query Service for CQRS.
@@ -22,9 +23,11 @@ import java.util.List;
 public class ProductQueryService {
 
     private final ProductRepository productRepository;
+    private final CatalogVersionService catalogVersionService;
 
-    public ProductQueryService(ProductRepository productRepository) {
+    public ProductQueryService(ProductRepository productRepository, CatalogVersionService catalogVersionService) {
         this.productRepository = productRepository;
+        this.catalogVersionService = catalogVersionService;
     }
 
     public List<Product> getAllProducts() {
@@ -35,4 +38,18 @@ public class ProductQueryService {
         return productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
+
+    /**
+     * Version of a single product, read without loading the entity.
+     */
+    public Optional<Long> getProductVersion(Long id) {
+        return productRepository.findVersionById(id);
+    }
+
+    /**
+     * Version of the whole catalog; changes whenever any product changes.
+     */
+    public long getCatalogVersion() {
+        return catalogVersionService.currentVersion();
+    }
 }
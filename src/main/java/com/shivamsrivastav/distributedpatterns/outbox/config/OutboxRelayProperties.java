@@ -0,0 +1,157 @@
+package com.shivamsrivastav.distributedpatterns.outbox.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration of the outbox relay ({@code OutboxEventPublisher}).
+ *
+ * @author Shivam Srivastav
+ */
+@ConfigurationProperties(prefix = "outbox.relay")
+public class OutboxRelayProperties {
+
+    public enum Mode {
+        /**
+         * One send per event with the shared {@code KafkaTemplate}; each event
+         * is marked processed as soon as it is handed to the producer.
+         */
+        SIMPLE,
+        /**
+         * Each fetched batch is sent in one Kafka transaction by an idempotent,
+         * transactional producer, and marked processed once it has committed.
+         */
+        TRANSACTIONAL
+    }
+
+    private Mode mode = Mode.SIMPLE;
+
+    /**
+     * Maximum events fetched and relayed per poll.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Prefix of the producer's {@code transactional.id}; must be unique per
+     * application instance so a restarted relay fences its predecessor.
+     */
+    private String transactionalIdPrefix = "outbox-relay-";
+
+    /**
+     * Topic by aggregate type; unmapped types go to
+     * {@code <aggregatetype>-events}.
+     */
+    private Map<String, String> topics = new HashMap<>();
+
+    /**
+     * Event types carrying an aggregate's full state, of which only the newest
+     * per aggregate in a batch is published; older ones are marked processed
+     * without being sent. Never list delta events.
+     */
+    private Set<String> compactedEventTypes = new HashSet<>();
+
+    private Producer producer = new Producer();
+
+    public String topicFor(String aggregateType) {
+        String topic = topics.get(aggregateType);
+        return topic != null ? topic : aggregateType.toLowerCase(Locale.ROOT) + "-events";
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public String getTransactionalIdPrefix() {
+        return transactionalIdPrefix;
+    }
+
+    public void setTransactionalIdPrefix(String transactionalIdPrefix) {
+        this.transactionalIdPrefix = transactionalIdPrefix;
+    }
+
+    public Map<String, String> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(Map<String, String> topics) {
+        this.topics = topics;
+    }
+
+    public Set<String> getCompactedEventTypes() {
+        return compactedEventTypes;
+    }
+
+    public void setCompactedEventTypes(Set<String> compactedEventTypes) {
+        this.compactedEventTypes = compactedEventTypes;
+    }
+
+    public Producer getProducer() {
+        return producer;
+    }
+
+    public void setProducer(Producer producer) {
+        this.producer = producer;
+    }
+
+    /**
+     * Tuning of the transactional relay producer.
+     */
+    public static class Producer {
+
+        /**
+         * How long the producer waits to fill a batch ({@code linger.ms}).
+         */
+        private int lingerMs = 20;
+
+        /**
+         * Maximum bytes per partition batch ({@code batch.size}).
+         */
+        private int batchSize = 64 * 1024;
+
+        /**
+         * {@code compression.type}: none, gzip, snappy, lz4 or zstd.
+         */
+        private String compressionType = "lz4";
+
+        public int getLingerMs() {
+            return lingerMs;
+        }
+
+        public void setLingerMs(int lingerMs) {
+            this.lingerMs = lingerMs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public String getCompressionType() {
+            return compressionType;
+        }
+
+        public void setCompressionType(String compressionType) {
+            this.compressionType = compressionType;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.shivamsrivastav.distributedpatterns.outbox.job;
+
+import com.shivamsrivastav.distributedpatterns.outbox.config.OutboxRelayProperties;
+import com.shivamsrivastav.distributedpatterns.outbox.model.OutboxEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compacts a relay batch down to the latest state of each aggregate.
+ * <p>
+ * Eligibility is by event type: of the events whose {@code eventType} is
+ * listed in {@code outbox.relay.compacted-event-types}, only the newest per
+ * aggregate within the batch is published; the older ones are superseded and
+ * just marked processed. Only list types whose payload is the aggregate's
+ * full state; deltas such as {@code PRODUCT_PRICES_UPDATED}, and every other
+ * type, pass through untouched even when they share an aggregate with a
+ * compacted one. After a relay outage this turns a backlog of state changes
+ * into one message per aggregate.
+ * </p>
+ * Per event type, {@code outbox.compaction.published} and
+ * {@code outbox.compaction.superseded} count events, and
+ * {@code outbox.compaction.ratio} records fetched-to-published per batch.
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+public class OutboxCompactor {
+
+    private final OutboxRelayProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public OutboxCompactor(OutboxRelayProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param batch Unprocessed events in id order
+     * @return Events to publish, still in id order, and the superseded ones
+     */
+    public Result compact(List<OutboxEvent> batch) {
+        if (properties.getCompactedEventTypes().isEmpty()) {
+            return new Result(batch, List.of());
+        }
+
+        // Newest event per compacted aggregate; ids grow with insertion order
+        Map<String, OutboxEvent> latest = new HashMap<>();
+        for (OutboxEvent event : batch) {
+            if (isCompacted(event)) {
+                latest.put(event.getAggregateType() + '\u0000' + event.getAggregateId(), event);
+            }
+        }
+        if (latest.isEmpty()) {
+            return new Result(batch, List.of());
+        }
+
+        List<OutboxEvent> publish = new ArrayList<>(batch.size());
+        List<OutboxEvent> superseded = new ArrayList<>();
+        Map<String, int[]> fetchedAndPublished = new HashMap<>();
+        for (OutboxEvent event : batch) {
+            if (!isCompacted(event)) {
+                publish.add(event);
+                continue;
+            }
+            int[] counts = fetchedAndPublished.computeIfAbsent(event.getEventType(), type -> new int[2]);
+            counts[0]++;
+            if (latest.get(event.getAggregateType() + '\u0000' + event.getAggregateId()) == event) {
+                publish.add(event);
+                counts[1]++;
+            } else {
+                superseded.add(event);
+            }
+        }
+
+        fetchedAndPublished.forEach((eventType, counts) -> {
+            meterRegistry.counter("outbox.compaction.published", "eventType", eventType)
+                    .increment(counts[1]);
+            meterRegistry.counter("outbox.compaction.superseded", "eventType", eventType)
+                    .increment(counts[0] - counts[1]);
+            DistributionSummary.builder("outbox.compaction.ratio")
+                    .description("Events fetched per event published, per relay batch")
+                    .tag("eventType", eventType)
+                    .register(meterRegistry)
+                    .record((double) counts[0] / counts[1]);
+        });
+        return new Result(publish, superseded);
+    }
+
+    private boolean isCompacted(OutboxEvent event) {
+        return properties.getCompactedEventTypes().contains(event.getEventType());
+    }
+
+    /**
+     * Outcome of compacting one batch.
+     */
+    public static class Result {
+
+        private final List<OutboxEvent> publish;
+        private final List<OutboxEvent> superseded;
+
+        public Result(List<OutboxEvent> publish, List<OutboxEvent> superseded) {
+            this.publish = publish;
+            this.superseded = superseded;
+        }
+
+        public List<OutboxEvent> getPublish() {
+            return publish;
+        }
+
+        public List<OutboxEvent> getSuperseded() {
+            return superseded;
+        }
+    }
+}
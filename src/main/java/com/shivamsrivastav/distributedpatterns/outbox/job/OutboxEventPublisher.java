@@ -1,62 +1,247 @@
 package com.shivamsrivastav.distributedpatterns.outbox.job;
 
+import com.shivamsrivastav.distributedpatterns.common.datasource.ShardContext;
+import com.shivamsrivastav.distributedpatterns.common.datasource.ShardRouter;
+import com.shivamsrivastav.distributedpatterns.common.tracing.TraceContext;
+import com.shivamsrivastav.distributedpatterns.common.tracing.Tracer;
+import com.shivamsrivastav.distributedpatterns.common.tracing.TracingFilter;
+import com.shivamsrivastav.distributedpatterns.outbox.config.OutboxRelayProperties;
 import com.shivamsrivastav.distributedpatterns.outbox.model.OutboxEvent;
 import com.shivamsrivastav.distributedpatterns.outbox.repository.OutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Scheduled job that acts as the "Relay" for the Outbox Pattern.
  * <p>
- * It polls the outbox table for unprocessed events and publishes them
- * (simulated here by logging). In a real app, this would send to
- * Kafka/RabbitMQ.
+ * It polls the outbox table for unprocessed events, oldest first, and
+ * publishes each to the topic mapped to its {@code aggregateType}
+ * ({@code outbox.relay.topics}).
  * </p>
+ * <p>
+ * In {@code TRANSACTIONAL} mode each fetched batch goes out in one Kafka
+ * transaction from an idempotent producer with batching and compression
+ * ({@code outbox.relay.producer.*}); the events are marked processed only
+ * after the transaction commits, so {@code read_committed} consumers see a
+ * batch entirely or not at all and broker-side retries never duplicate a
+ * record. A crash between the Kafka commit and the database update re-sends
+ * that batch, so records carry an {@code outbox-event-id} header for
+ * consumers that must be strict.
+ * </p>
+ * <p>
+ * Event types configured for compaction publish only the latest state per
+ * aggregate in each batch (see {@link OutboxCompactor}).
+ * </p>
+ * <p>
+ * With saga sharding enabled every shard has its own relay: each poll drains
+ * all shards in parallel, one batch and one transaction per shard.
+ * </p>
+ * The trace context stored on each event is continued here: the time the
+ * event waited in the outbox becomes an {@code outbox.relay-delay} span, and
+ * the publish span's context is sent in the {@code traceparent} header.
  *
  * @author Shivam Srivastav
  */
 @Component
 @EnableScheduling
+@EnableConfigurationProperties(OutboxRelayProperties.class)
 public class OutboxEventPublisher {
 
     private static final Logger log = LoggerFactory.getLogger(OutboxEventPublisher.class);
 
+    public static final String EVENT_ID_HEADER = "outbox-event-id";
+    public static final String EVENT_TYPE_HEADER = "event-type";
+
+    private static final String MARK_PROCESSED_SQL = "UPDATE outbox_events SET processed = true WHERE id = ?";
+
     private final OutboxRepository outboxRepository;
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Tracer tracer;
+    private final OutboxRelayProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final OutboxCompactor compactor;
+
+    private final DefaultKafkaProducerFactory<String, String> transactionalProducerFactory;
+    private final KafkaTemplate<String, String> transactionalTemplate;
 
-    public OutboxEventPublisher(OutboxRepository outboxRepository, KafkaTemplate<String, String> kafkaTemplate) {
+    public OutboxEventPublisher(OutboxRepository outboxRepository, KafkaTemplate<String, String> kafkaTemplate,
+            Tracer tracer, OutboxRelayProperties properties, KafkaProperties kafkaProperties,
+            JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ShardRouter shardRouter,
+            OutboxCompactor compactor) {
         this.outboxRepository = outboxRepository;
         this.kafkaTemplate = kafkaTemplate;
+        this.tracer = tracer;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.compactor = compactor;
+
+        if (properties.getMode() == OutboxRelayProperties.Mode.TRANSACTIONAL) {
+            this.transactionalProducerFactory = transactionalProducerFactory(kafkaProperties, properties);
+            this.transactionalTemplate = new KafkaTemplate<>(transactionalProducerFactory);
+        } else {
+            this.transactionalProducerFactory = null;
+            this.transactionalTemplate = null;
+        }
     }
 
-    @Scheduled(fixedDelay = 5000)
+    private static DefaultKafkaProducerFactory<String, String> transactionalProducerFactory(
+            KafkaProperties kafkaProperties, OutboxRelayProperties properties) {
+        Map<String, Object> config = kafkaProperties.buildProducerProperties(null);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.LINGER_MS_CONFIG, properties.getProducer().getLingerMs());
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, properties.getProducer().getBatchSize());
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getProducer().getCompressionType());
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(config);
+        factory.setTransactionIdPrefix(properties.getTransactionalIdPrefix());
+        return factory;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:5000}")
     public void publishUnprocessedEvents() {
-        List<OutboxEvent> events = outboxRepository.findByProcessedFalse();
+        shardRouter.onEveryShardInBackground(shard -> {
+            try {
+                publishUnprocessedEvents(shard);
+            } catch (Exception e) {
+                log.error("Outbox relay failed on shard {}", shard, e);
+            }
+            return null;
+        });
+    }
+
+    private void publishUnprocessedEvents(int shard) {
+        List<OutboxEvent> events = outboxRepository.findByProcessedFalseOrderByIdAsc(
+                PageRequest.of(0, properties.getBatchSize()));
 
         if (!events.isEmpty()) {
-            log.info("Found {} unprocessed outbox events. Publishing...", events.size());
-
-            for (OutboxEvent event : events) {
-                try {
-                    // Publish to Kafka
-                    log.info(">>> Publishing Event to Kafka Topic 'orders': [Type: {}, ID: {}]", event.getEventType(),
-                            event.getAggregateId());
-                    kafkaTemplate.send("orders", event.getAggregateId(), event.getPayload());
-
-                    // Mark as processed
-                    event.setProcessed(true);
-                    outboxRepository.save(event);
-
-                } catch (Exception e) {
-                    log.error("Failed to publish event {}", event.getId(), e);
-                }
+            log.info("Found {} unprocessed outbox events on shard {}. Publishing...", events.size(), shard);
+
+            OutboxCompactor.Result compaction = compactor.compact(events);
+            if (!compaction.getSuperseded().isEmpty()) {
+                log.info("Compacted away {} superseded outbox events", compaction.getSuperseded().size());
+            }
+            if (transactionalTemplate != null) {
+                publishInTransaction(compaction.getPublish(), compaction.getSuperseded());
+            } else {
+                // Superseded events are done whether or not their successor gets out now
+                markProcessed(compaction.getSuperseded());
+                publishOneByOne(compaction.getPublish());
+            }
+        }
+    }
+
+    private void publishOneByOne(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            try {
+                // Publish to Kafka
+                send(kafkaTemplate, event);
+
+                // Mark as processed
+                event.setProcessed(true);
+                outboxRepository.save(event);
+
+            } catch (Exception e) {
+                log.error("Failed to publish event {}", event.getId(), e);
             }
         }
     }
+
+    private void publishInTransaction(List<OutboxEvent> events, List<OutboxEvent> superseded) {
+        try {
+            transactionalTemplate.executeInTransaction(operations -> {
+                events.forEach(event -> send(operations, event));
+                return null;
+            });
+        } catch (Exception e) {
+            // Aborted: nothing was made visible, the whole batch is retried on the next poll
+            log.error("Kafka transaction for {} outbox events aborted", events.size(), e);
+            return;
+        }
+
+        List<OutboxEvent> processed = new ArrayList<>(events.size() + superseded.size());
+        processed.addAll(events);
+        processed.addAll(superseded);
+        markProcessed(processed);
+        log.info("Committed {} outbox events in one Kafka transaction", events.size());
+    }
+
+    private void markProcessed(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(MARK_PROCESSED_SQL, events,
+                events.size(), (ps, event) -> ps.setLong(1, event.getId())));
+    }
+
+    private void send(KafkaOperations<String, String> operations, OutboxEvent event) {
+        String topic = properties.topicFor(event.getAggregateType());
+        log.info(">>> Publishing Event to Kafka Topic '{}': [Type: {}, ID: {}]", topic, event.getEventType(),
+                event.getAggregateId());
+        TraceContext trace = TraceContext.parse(event.getTraceParent());
+        if (trace != null && event.getCreatedAt() != null) {
+            tracer.recordSpan("outbox.relay-delay", trace, toMicros(event.getCreatedAt()), Tracer.nowMicros());
+        }
+        tracer.inSpan("outbox.publish", trace, () -> operations.send(toRecord(topic, event)));
+    }
+
+    private ProducerRecord<String, String> toRecord(String topic, OutboxEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, event.getAggregateId(),
+                event.getPayload());
+        record.headers().add(EVENT_ID_HEADER, eventId(event).getBytes(StandardCharsets.UTF_8));
+        record.headers().add(EVENT_TYPE_HEADER, event.getEventType().getBytes(StandardCharsets.UTF_8));
+        // The publish span when sampled, otherwise the event's own (unsampled) context
+        String traceParent = tracer.currentTraceParent() != null
+                ? tracer.currentTraceParent()
+                : event.getTraceParent();
+        if (traceParent != null) {
+            record.headers().add(TracingFilter.TRACE_PARENT_HEADER, traceParent.getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+
+    /**
+     * Outbox ids are only unique within a shard, so a sharded event's id names
+     * its shard.
+     */
+    private String eventId(OutboxEvent event) {
+        return shardRouter.getShardCount() == 1
+                ? event.getId().toString()
+                : ShardContext.current() + "-" + event.getId();
+    }
+
+    private static long toMicros(LocalDateTime createdAt) {
+        return createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() * 1000;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (transactionalProducerFactory != null) {
+            transactionalProducerFactory.destroy();
+        }
+    }
 }
@@ -35,6 +35,13 @@ public class OutboxEvent {
 
     private boolean processed;
 
+    /**
+     * W3C {@code traceparent} of the span that wrote the event, so the relay
+     * and consumer can continue the trace.
+     */
+    @Column(length = 55)
+    private String traceParent;
+
     public OutboxEvent() {
     }
 
@@ -105,6 +112,14 @@ public class OutboxEvent {
         this.processed = processed;
     }
 
+    public String getTraceParent() {
+        return traceParent;
+    }
+
+    public void setTraceParent(String traceParent) {
+        this.traceParent = traceParent;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -130,6 +145,7 @@ public class OutboxEvent {
                 ", payload='" + payload + '\'' +
                 ", createdAt=" + createdAt +
                 ", processed=" + processed +
+                ", traceParent='" + traceParent + '\'' +
                 '}';
     }
 }
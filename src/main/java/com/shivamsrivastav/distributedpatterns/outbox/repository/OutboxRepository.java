@@ -1,6 +1,7 @@
 package com.shivamsrivastav.distributedpatterns.outbox.repository;
 
 import com.shivamsrivastav.distributedpatterns.outbox.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -20,4 +21,12 @@ public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
      * @return List of unprocessed events.
      */
     List<OutboxEvent> findByProcessedFalse();
+
+    /**
+     * Find a page of unprocessed events, oldest first.
+     *
+     * @param pageable Page size (the relay batch)
+     * @return Unprocessed events in insertion order
+     */
+    List<OutboxEvent> findByProcessedFalseOrderByIdAsc(Pageable pageable);
 }
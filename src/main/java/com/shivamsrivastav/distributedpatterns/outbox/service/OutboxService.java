@@ -1,6 +1,7 @@
 package com.shivamsrivastav.distributedpatterns.outbox.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivamsrivastav.distributedpatterns.common.tracing.Tracer;
 import com.shivamsrivastav.distributedpatterns.outbox.model.OutboxEvent;
 import com.shivamsrivastav.distributedpatterns.outbox.repository.OutboxRepository;
 import org.springframework.stereotype.Service;
@@ -17,15 +18,18 @@ public class OutboxService {
 
     private final OutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
+    private final Tracer tracer;
 
-    public OutboxService(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+    public OutboxService(OutboxRepository outboxRepository, ObjectMapper objectMapper, Tracer tracer) {
         this.outboxRepository = outboxRepository;
         this.objectMapper = objectMapper;
+        this.tracer = tracer;
     }
 
     /**
      * Saves an event to the outbox.
      * MUST be called within an existing transaction (REQUIRED propagation implied).
+     * The current trace context, if any, is stored with the event.
      */
     @Transactional(propagation = Propagation.MANDATORY)
     public void saveEvent(String aggregateType, String aggregateId, String eventType, Object payload) {
@@ -38,6 +42,7 @@ public class OutboxService {
             event.setEventType(eventType);
             event.setPayload(payloadJson);
             event.setProcessed(false);
+            event.setTraceParent(tracer.currentTraceParent());
 
             outboxRepository.save(event);
         } catch (Exception e) {
@@ -0,0 +1,79 @@
+package com.shivamsrivastav.distributedpatterns.resilience.controller;
+
+import com.shivamsrivastav.distributedpatterns.resilience.fault.FaultInjector;
+import com.shivamsrivastav.distributedpatterns.resilience.fault.FaultProfile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Runtime control of the fault injected into the mock dependencies
+ * ({@code inventory}, {@code payment}, {@code paymentProvider}).
+ *
+ * @author Shivam Srivastav
+ */
+@RestController
+@RequestMapping("/api/resilience/faults")
+public class FaultInjectionController {
+
+    private final FaultInjector faultInjector;
+
+    public FaultInjectionController(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, FaultProfile>> getProfiles() {
+        return ResponseEntity.ok(faultInjector.getProfiles());
+    }
+
+    /**
+     * Replaces a dependency's profile, e.g.
+     * {@code {"latency":"LONG_TAIL","latencyMs":20,"tailSigma":1.2,"errorRate":0.05}}.
+     */
+    @PutMapping("/{dependency}")
+    public ResponseEntity<FaultProfile> updateProfile(@PathVariable String dependency,
+            @RequestBody FaultProfile profile) {
+        faultInjector.update(dependency, profile);
+        return ResponseEntity.ok(faultInjector.getProfile(dependency));
+    }
+
+    /**
+     * Restores the configured profile.
+     */
+    @DeleteMapping("/{dependency}")
+    public ResponseEntity<FaultProfile> resetProfile(@PathVariable String dependency) {
+        faultInjector.reset(dependency);
+        return ResponseEntity.ok(faultInjector.getProfile(dependency));
+    }
+
+    /**
+     * e.g. {@code POST /api/resilience/faults/payment/outage?duration=PT30S}
+     */
+    @PostMapping("/{dependency}/outage")
+    public ResponseEntity<FaultProfile> startOutage(@PathVariable String dependency,
+            @RequestParam Duration duration) {
+        faultInjector.startOutage(dependency, duration);
+        return ResponseEntity.ok(faultInjector.getProfile(dependency));
+    }
+
+    /**
+     * e.g. {@code POST /api/resilience/faults/inventory/slowdown?factor=5&duration=PT1M}
+     */
+    @PostMapping("/{dependency}/slowdown")
+    public ResponseEntity<FaultProfile> startSlowdown(@PathVariable String dependency,
+            @RequestParam double factor, @RequestParam Duration duration) {
+        faultInjector.startSlowdown(dependency, factor, duration);
+        return ResponseEntity.ok(faultInjector.getProfile(dependency));
+    }
+}
@@ -1,11 +1,16 @@
 package com.shivamsrivastav.distributedpatterns.resilience.controller;
 
+import com.shivamsrivastav.distributedpatterns.resilience.limiter.AdaptiveConcurrencyLimiter;
+import com.shivamsrivastav.distributedpatterns.resilience.limiter.AdaptiveLimiterRegistry;
 import com.shivamsrivastav.distributedpatterns.resilience.service.ResilientPaymentService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller to test Resilience4j patterns.
  *
@@ -16,13 +21,33 @@ import org.springframework.web.bind.annotation.RestController;
 public class ResilienceController {
 
     private final ResilientPaymentService resilientPaymentService;
+    private final AdaptiveLimiterRegistry limiterRegistry;
 
-    public ResilienceController(ResilientPaymentService resilientPaymentService) {
+    public ResilienceController(ResilientPaymentService resilientPaymentService,
+            AdaptiveLimiterRegistry limiterRegistry) {
         this.resilientPaymentService = resilientPaymentService;
+        this.limiterRegistry = limiterRegistry;
     }
 
     @GetMapping("/payment")
     public ResponseEntity<String> testResilience() {
         return ResponseEntity.ok(resilientPaymentService.processRiskyPayment());
     }
+
+    /**
+     * Async variant; the request thread is released while the call and its
+     * retries are pending.
+     */
+    @GetMapping("/payment/async")
+    public CompletableFuture<ResponseEntity<String>> testResilienceAsync() {
+        return resilientPaymentService.processRiskyPaymentAsync().thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Current limit, in-flight calls and accept/reject counts per adaptive limiter.
+     */
+    @GetMapping("/limiters")
+    public ResponseEntity<Collection<AdaptiveConcurrencyLimiter>> getLimiters() {
+        return ResponseEntity.ok(limiterRegistry.getAll());
+    }
 }
@@ -0,0 +1,175 @@
+package com.shivamsrivastav.distributedpatterns.resilience.fault;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Injects latency and failures into the mock dependencies.
+ * <p>
+ * Each dependency calls {@link #inject(String)} at the start of a call. The
+ * call then fails at once during an outage window; otherwise it sleeps for a
+ * sample of its latency distribution (times any active slowdown) and then
+ * fails with the profile's error rate. Profiles start from
+ * {@code faults.dependencies.*} and are changed at runtime through
+ * {@code /api/resilience/faults}, which is what makes it possible to size
+ * pools, bulkheads and timeouts against a dependency that behaves like the
+ * real one.
+ * </p>
+ * Injected faults are counted in {@code faults.injected}, tagged by dependency
+ * and type (latency, error, outage, timeout).
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@EnableConfigurationProperties(FaultProperties.class)
+public class FaultInjector {
+
+    private static final Logger log = LoggerFactory.getLogger(FaultInjector.class);
+
+    private static final FaultProfile NO_FAULTS = new FaultProfile();
+
+    private final FaultProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, FaultProfile> profiles = new ConcurrentHashMap<>();
+
+    public FaultInjector(FaultProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        properties.getDependencies().forEach((name, profile) -> profiles.put(name, new FaultProfile(profile)));
+    }
+
+    /**
+     * Applies the dependency's current faults to the calling thread.
+     *
+     * @param dependency Dependency name
+     * @throws InjectedFaultException if the call is made to fail
+     */
+    public void inject(String dependency) {
+        inject(dependency, null);
+    }
+
+    /**
+     * Like {@link #inject(String)}, but the caller gives up after
+     * {@code timeout} as a client with a timeout would: a sampled latency
+     * longer than that is cut short and the call fails.
+     *
+     * @param dependency Dependency name
+     * @param timeout    How long the caller waits, or {@code null} for no limit
+     * @throws InjectedFaultException if the call is made to fail or times out
+     */
+    public void inject(String dependency, Duration timeout) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        FaultProfile profile = profiles.getOrDefault(dependency, NO_FAULTS);
+        Instant now = Instant.now();
+
+        if (profile.isInOutage(now)) {
+            count(dependency, "outage");
+            throw new InjectedFaultException(dependency + " is unavailable (injected outage)");
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double latencyMs = profile.getLatency().sampleMillis(profile, random) * profile.currentSlowdownFactor(now);
+        latencyMs = Math.min(latencyMs, profile.getMaxLatencyMs());
+        if (timeout != null && latencyMs > timeout.toNanos() / 1_000_000.0) {
+            count(dependency, "timeout");
+            sleep(dependency, timeout.toNanos() / 1_000_000.0);
+            throw new InjectedFaultException(dependency + " did not answer within " + timeout.toMillis() + "ms");
+        }
+        if (latencyMs > 0) {
+            count(dependency, "latency");
+            sleep(dependency, latencyMs);
+        }
+
+        if (profile.getErrorRate() > 0 && random.nextDouble() < profile.getErrorRate()) {
+            count(dependency, "error");
+            throw new InjectedFaultException(dependency + " failed (injected error)");
+        }
+    }
+
+    private void count(String dependency, String type) {
+        meterRegistry.counter("faults.injected", "dependency", dependency, "type", type).increment();
+    }
+
+    private static void sleep(String dependency, double millis) {
+        try {
+            TimeUnit.MICROSECONDS.sleep((long) (millis * 1000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InjectedFaultException(dependency + " call interrupted");
+        }
+    }
+
+    /**
+     * @return Current profile of every dependency that has one
+     */
+    public Map<String, FaultProfile> getProfiles() {
+        return new TreeMap<>(profiles);
+    }
+
+    public FaultProfile getProfile(String dependency) {
+        return profiles.getOrDefault(dependency, NO_FAULTS);
+    }
+
+    /**
+     * Replaces a dependency's profile.
+     */
+    public void update(String dependency, FaultProfile profile) {
+        profiles.put(dependency, new FaultProfile(profile));
+        log.info("Fault profile of {} set to {}", dependency, profile);
+    }
+
+    /**
+     * Restores a dependency's startup profile.
+     */
+    public void reset(String dependency) {
+        FaultProfile configured = properties.getDependencies().get(dependency);
+        if (configured == null) {
+            profiles.remove(dependency);
+        } else {
+            profiles.put(dependency, new FaultProfile(configured));
+        }
+        log.info("Fault profile of {} reset", dependency);
+    }
+
+    /**
+     * Starts an outage now, keeping the rest of the profile.
+     *
+     * @param duration How long the outage lasts
+     */
+    public void startOutage(String dependency, Duration duration) {
+        profiles.compute(dependency, (key, current) -> {
+            FaultProfile next = new FaultProfile(current == null ? NO_FAULTS : current);
+            Instant now = Instant.now();
+            next.setOutageFrom(now);
+            next.setOutageUntil(now.plus(duration));
+            return next;
+        });
+        log.warn("Injected outage of {} for {}", dependency, duration);
+    }
+
+    /**
+     * Multiplies the dependency's latency by {@code factor} for {@code duration}.
+     */
+    public void startSlowdown(String dependency, double factor, Duration duration) {
+        profiles.compute(dependency, (key, current) -> {
+            FaultProfile next = new FaultProfile(current == null ? NO_FAULTS : current);
+            next.setSlowdownFactor(factor);
+            next.setSlowdownUntil(Instant.now().plus(duration));
+            return next;
+        });
+        log.warn("Injected {}x slowdown of {} for {}", factor, dependency, duration);
+    }
+}
@@ -0,0 +1,169 @@
+package com.shivamsrivastav.distributedpatterns.resilience.fault;
+
+import java.time.Instant;
+
+/**
+ * Faults injected into one dependency: a latency distribution, an error rate,
+ * an optional slowdown and an optional outage window.
+ * <p>
+ * A profile is not modified once it is in use by {@link FaultInjector};
+ * changes replace it with a new instance.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class FaultProfile {
+
+    private LatencyDistribution latency = LatencyDistribution.NONE;
+
+    /**
+     * Fixed latency, mean (NORMAL) or median (LONG_TAIL).
+     */
+    private double latencyMs;
+    private double latencyStdDevMs;
+    private double tailSigma = 1.0;
+
+    /**
+     * Upper bound of any injected latency.
+     */
+    private double maxLatencyMs = 30_000;
+
+    /**
+     * Probability (0..1) that a call fails after its latency.
+     */
+    private double errorRate;
+
+    /**
+     * Latency multiplier, applied until {@code slowdownUntil} (or always when
+     * that is not set).
+     */
+    private double slowdownFactor = 1.0;
+    private Instant slowdownUntil;
+
+    /**
+     * Every call fails immediately between these instants; an unset start
+     * means "from now".
+     */
+    private Instant outageFrom;
+    private Instant outageUntil;
+
+    public FaultProfile() {
+    }
+
+    public FaultProfile(FaultProfile other) {
+        this.latency = other.latency;
+        this.latencyMs = other.latencyMs;
+        this.latencyStdDevMs = other.latencyStdDevMs;
+        this.tailSigma = other.tailSigma;
+        this.maxLatencyMs = other.maxLatencyMs;
+        this.errorRate = other.errorRate;
+        this.slowdownFactor = other.slowdownFactor;
+        this.slowdownUntil = other.slowdownUntil;
+        this.outageFrom = other.outageFrom;
+        this.outageUntil = other.outageUntil;
+    }
+
+    public boolean isInOutage(Instant now) {
+        return outageUntil != null && now.isBefore(outageUntil) && (outageFrom == null || !now.isBefore(outageFrom));
+    }
+
+    public double currentSlowdownFactor(Instant now) {
+        return slowdownUntil == null || now.isBefore(slowdownUntil) ? slowdownFactor : 1.0;
+    }
+
+    public LatencyDistribution getLatency() {
+        return latency;
+    }
+
+    public void setLatency(LatencyDistribution latency) {
+        this.latency = latency;
+    }
+
+    public double getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(double latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public double getLatencyStdDevMs() {
+        return latencyStdDevMs;
+    }
+
+    public void setLatencyStdDevMs(double latencyStdDevMs) {
+        this.latencyStdDevMs = latencyStdDevMs;
+    }
+
+    public double getTailSigma() {
+        return tailSigma;
+    }
+
+    public void setTailSigma(double tailSigma) {
+        this.tailSigma = tailSigma;
+    }
+
+    public double getMaxLatencyMs() {
+        return maxLatencyMs;
+    }
+
+    public void setMaxLatencyMs(double maxLatencyMs) {
+        this.maxLatencyMs = maxLatencyMs;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public double getSlowdownFactor() {
+        return slowdownFactor;
+    }
+
+    public void setSlowdownFactor(double slowdownFactor) {
+        this.slowdownFactor = slowdownFactor;
+    }
+
+    public Instant getSlowdownUntil() {
+        return slowdownUntil;
+    }
+
+    public void setSlowdownUntil(Instant slowdownUntil) {
+        this.slowdownUntil = slowdownUntil;
+    }
+
+    public Instant getOutageFrom() {
+        return outageFrom;
+    }
+
+    public void setOutageFrom(Instant outageFrom) {
+        this.outageFrom = outageFrom;
+    }
+
+    public Instant getOutageUntil() {
+        return outageUntil;
+    }
+
+    public void setOutageUntil(Instant outageUntil) {
+        this.outageUntil = outageUntil;
+    }
+
+    @Override
+    public String toString() {
+        return "FaultProfile{" +
+                "latency=" + latency +
+                ", latencyMs=" + latencyMs +
+                ", latencyStdDevMs=" + latencyStdDevMs +
+                ", tailSigma=" + tailSigma +
+                ", maxLatencyMs=" + maxLatencyMs +
+                ", errorRate=" + errorRate +
+                ", slowdownFactor=" + slowdownFactor +
+                ", slowdownUntil=" + slowdownUntil +
+                ", outageFrom=" + outageFrom +
+                ", outageUntil=" + outageUntil +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+package com.shivamsrivastav.distributedpatterns.resilience.fault;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Startup fault profiles, by dependency name. They can be changed at runtime
+ * through {@code /api/resilience/faults}; a reset restores these.
+ *
+ * @author Shivam Srivastav
+ */
+@ConfigurationProperties(prefix = "faults")
+public class FaultProperties {
+
+    private boolean enabled = true;
+    private Map<String, FaultProfile> dependencies = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, FaultProfile> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(Map<String, FaultProfile> dependencies) {
+        this.dependencies = dependencies;
+    }
+}
@@ -0,0 +1,14 @@
+package com.shivamsrivastav.distributedpatterns.resilience.fault;
+
+/**
+ * Failure produced by the {@link FaultInjector} rather than by the mock
+ * dependency's own business rules.
+ *
+ * @author Shivam Srivastav
+ */
+public class InjectedFaultException extends RuntimeException {
+
+    public InjectedFaultException(String message) {
+        super(message);
+    }
+}
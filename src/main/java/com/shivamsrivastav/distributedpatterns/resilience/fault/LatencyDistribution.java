@@ -0,0 +1,52 @@
+package com.shivamsrivastav.distributedpatterns.resilience.fault;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shape of the latency injected into a dependency call.
+ *
+ * @author Shivam Srivastav
+ */
+public enum LatencyDistribution {
+
+    /**
+     * No added latency.
+     */
+    NONE {
+        @Override
+        double sampleMillis(FaultProfile profile, ThreadLocalRandom random) {
+            return 0;
+        }
+    },
+    /**
+     * Always {@code latencyMs}.
+     */
+    FIXED {
+        @Override
+        double sampleMillis(FaultProfile profile, ThreadLocalRandom random) {
+            return profile.getLatencyMs();
+        }
+    },
+    /**
+     * Normal around {@code latencyMs} with {@code latencyStdDevMs}, clipped at 0.
+     */
+    NORMAL {
+        @Override
+        double sampleMillis(FaultProfile profile, ThreadLocalRandom random) {
+            return Math.max(0, profile.getLatencyMs() + profile.getLatencyStdDevMs() * random.nextGaussian());
+        }
+    },
+    /**
+     * Log-normal with median {@code latencyMs} and shape {@code tailSigma}:
+     * most calls near the median, a few very slow ones (sigma 1.0 puts p99
+     * at roughly 10x the median).
+     */
+    LONG_TAIL {
+        @Override
+        double sampleMillis(FaultProfile profile, ThreadLocalRandom random) {
+            return profile.getLatencyMs() * Math.exp(profile.getTailSigma() * random.nextGaussian());
+        }
+    };
+
+    abstract double sampleMillis(FaultProfile profile, ThreadLocalRandom random);
+}
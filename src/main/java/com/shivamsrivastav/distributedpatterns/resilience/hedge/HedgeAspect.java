@@ -0,0 +1,230 @@
+package com.shivamsrivastav.distributedpatterns.resilience.hedge;
+
+import com.shivamsrivastav.distributedpatterns.common.datasource.ShardContext;
+import com.shivamsrivastav.distributedpatterns.common.tracing.TraceContext;
+import com.shivamsrivastav.distributedpatterns.common.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies {@link Hedged} to synchronous methods.
+ * <p>
+ * Both attempts run on hedge workers while the caller waits for the first
+ * answer, so the caller's thread is never interrupted. If the primary has not
+ * answered within the policy's hedge delay and the budget allows, a second
+ * attempt is started; whichever succeeds first is returned and the other is
+ * cancelled (interrupted), so hedged methods must give up when interrupted.
+ * An attempt that fails does not trigger a hedge (that is Retry's job); the
+ * call only fails once every attempt started has failed.
+ * </p>
+ * <p>
+ * The caller's trace context and shard are carried over to the workers.
+ * Transaction synchronization cannot be: a transaction is bound to the
+ * caller's thread and connection. Calls made inside a transaction therefore
+ * run unhedged on the caller's thread, and {@code @Hedged} does not belong on
+ * transactional methods.
+ * </p>
+ * <p>
+ * Hedge workers are capped at {@value #MAX_HEDGE_WORKERS} and never queue (a
+ * hedge that has to wait is too late); with all of them busy the call runs
+ * unhedged on the caller's thread and counts as budget exhausted.
+ * </p>
+ * Ordered inside Retry and the Circuit Breaker, so each hedged pair counts as
+ * one call there, and outside the bulkheads, so each attempt takes a permit.
+ *
+ * @author Shivam Srivastav
+ */
+@Aspect
+@Component
+public class HedgeAspect implements Ordered {
+
+    private static final int MAX_HEDGE_WORKERS = 64;
+
+    private final HedgeRegistry registry;
+    private final Tracer tracer;
+    private final ThreadPoolExecutor hedges;
+
+    public HedgeAspect(HedgeRegistry registry, Tracer tracer) {
+        this.registry = registry;
+        this.tracer = tracer;
+        AtomicInteger threadId = new AtomicInteger();
+        this.hedges = new ThreadPoolExecutor(0, MAX_HEDGE_WORKERS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "hedge-" + threadId.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Around("@annotation(hedged)")
+    public Object hedge(ProceedingJoinPoint joinPoint, Hedged hedged) throws Throwable {
+        HedgeRegistry.Instrumented hedge = registry.get(hedged.name());
+        HedgePolicy policy = hedge.getPolicy();
+        hedge.getCalls().increment();
+        policy.onCall();
+
+        long delay = policy.hedgeDelayNanos();
+        long start = System.nanoTime();
+        if (delay < 0 || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return proceedUnhedged(joinPoint, hedge, start);
+        }
+
+        Call call = new Call(joinPoint, hedge, tracer.currentContext(), ShardContext.current(), start);
+        try {
+            call.send(false);
+        } catch (RejectedExecutionException e) {
+            hedge.getBudgetExhausted().increment();
+            return proceedUnhedged(joinPoint, hedge, start);
+        }
+        try {
+            try {
+                return call.result.get(delay, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                sendHedge(call, hedge);
+            }
+            return call.result.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            call.cancelAttempts();
+            hedge.getEffectiveLatency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Object proceedUnhedged(ProceedingJoinPoint joinPoint, HedgeRegistry.Instrumented hedge,
+            long start) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long latency = System.nanoTime() - start;
+            hedge.getPolicy().recordLatency(latency);
+            hedge.getPrimaryLatency().record(latency, TimeUnit.NANOSECONDS);
+            hedge.getEffectiveLatency().record(latency, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void sendHedge(Call call, HedgeRegistry.Instrumented hedge) {
+        if (!hedge.getPolicy().tryAcquireHedge()) {
+            hedge.getBudgetExhausted().increment();
+            return;
+        }
+        try {
+            if (call.send(true)) {
+                hedge.getSent().increment();
+            }
+        } catch (RejectedExecutionException e) {
+            hedge.getBudgetExhausted().increment();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedges.shutdownNow();
+    }
+
+    /**
+     * One hedged call: its attempts and the first successful result. Guarded
+     * by its own monitor so an attempt failing and another being sent agree
+     * on how many are still running.
+     */
+    private final class Call {
+        private final ProceedingJoinPoint joinPoint;
+        private final HedgeRegistry.Instrumented hedge;
+        private final TraceContext trace;
+        private final Integer shard;
+        private final long start;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private int running;
+        private Future<?> primary;
+        private Future<?> second;
+
+        private Call(ProceedingJoinPoint joinPoint, HedgeRegistry.Instrumented hedge, TraceContext trace,
+                Integer shard, long start) {
+            this.joinPoint = joinPoint;
+            this.hedge = hedge;
+            this.trace = trace;
+            this.shard = shard;
+            this.start = start;
+        }
+
+        /**
+         * @return false if the call was already answered
+         * @throws RejectedExecutionException if every hedge worker is busy
+         */
+        private synchronized boolean send(boolean isHedge) {
+            if (result.isDone()) {
+                return false;
+            }
+            Future<?> attempt = hedges.submit(() -> attempt(isHedge));
+            running++;
+            if (isHedge) {
+                second = attempt;
+            } else {
+                primary = attempt;
+            }
+            return true;
+        }
+
+        private void attempt(boolean isHedge) {
+            TraceContext previousTrace = tracer.activate(trace);
+            Integer previousShard = ShardContext.activate(shard);
+            try {
+                Object value = joinPoint.proceed();
+                if (result.complete(value) && isHedge) {
+                    hedge.getWins().increment();
+                }
+            } catch (Throwable t) {
+                failed(t);
+            } finally {
+                ShardContext.restore(previousShard);
+                tracer.restore(previousTrace);
+                if (!isHedge) {
+                    // When it lost to the hedge this is the time until it was
+                    // cancelled, a lower bound already past the hedge delay, so
+                    // the percentile the delay comes from is not pulled down
+                    long latency = System.nanoTime() - start;
+                    hedge.getPolicy().recordLatency(latency);
+                    hedge.getPrimaryLatency().record(latency, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        private synchronized void failed(Throwable t) {
+            if (--running == 0) {
+                result.completeExceptionally(t);
+            }
+        }
+
+        private synchronized void cancelAttempts() {
+            if (primary != null) {
+                primary.cancel(true);
+            }
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.shivamsrivastav.distributedpatterns.resilience.hedge;
+
+import java.util.Arrays;
+
+/**
+ * Per-instance hedging state: the recent latency window that yields the
+ * hedge delay, and the token budget that caps the hedge rate.
+ *
+ * @author Shivam Srivastav
+ */
+public class HedgePolicy {
+
+    private static final int RECOMPUTE_EVERY = 50;
+    private static final double MAX_BUDGET_TOKENS = 10;
+
+    private final String name;
+    private final HedgeProperties.Instance config;
+
+    private final long[] window;
+    private int windowPos;
+    private int windowCount;
+    private int sinceRecompute;
+    private volatile long hedgeDelayNanos = -1;
+
+    private double budgetTokens;
+
+    public HedgePolicy(String name, HedgeProperties.Instance config) {
+        this.name = name;
+        this.config = config;
+        this.window = new long[config.getWindowSize()];
+    }
+
+    /**
+     * @return Delay before hedging, or -1 while the window is still filling
+     */
+    public long hedgeDelayNanos() {
+        return config.isEnabled() ? hedgeDelayNanos : -1;
+    }
+
+    /**
+     * Records the latency of a completed attempt (the primary's, so hedging
+     * does not pull its own trigger point down).
+     */
+    public synchronized void recordLatency(long nanos) {
+        window[windowPos] = nanos;
+        windowPos = (windowPos + 1) % window.length;
+        windowCount = Math.min(windowCount + 1, window.length);
+        if (windowCount == window.length && ++sinceRecompute >= RECOMPUTE_EVERY) {
+            sinceRecompute = 0;
+            long[] sorted = window.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(config.getPercentile() * sorted.length) - 1;
+            hedgeDelayNanos = Math.max(config.getMinDelay().toNanos(), sorted[Math.max(0, index)]);
+        }
+    }
+
+    /**
+     * Earns {@code maxHedgeRatio} of a token per call.
+     */
+    public synchronized void onCall() {
+        budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + config.getMaxHedgeRatio());
+    }
+
+    /**
+     * @return true if a hedge may be sent (consumes one token)
+     */
+    public synchronized boolean tryAcquireHedge() {
+        if (budgetTokens >= 1) {
+            budgetTokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
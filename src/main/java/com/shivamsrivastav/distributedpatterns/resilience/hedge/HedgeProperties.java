@@ -0,0 +1,95 @@
+package com.shivamsrivastav.distributedpatterns.resilience.hedge;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration of hedge policy instances.
+ *
+ * @author Shivam Srivastav
+ */
+@ConfigurationProperties(prefix = "resilience.hedge")
+public class HedgeProperties {
+
+    private Map<String, Instance> instances = new HashMap<>();
+
+    public Map<String, Instance> getInstances() {
+        return instances;
+    }
+
+    public void setInstances(Map<String, Instance> instances) {
+        this.instances = instances;
+    }
+
+    /**
+     * Settings of one hedge policy.
+     */
+    public static class Instance {
+
+        private boolean enabled = true;
+
+        /**
+         * Latency percentile after which the hedge is sent.
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Lower bound of the hedge delay.
+         */
+        private Duration minDelay = Duration.ofMillis(5);
+
+        /**
+         * Maximum hedges as a fraction of calls.
+         */
+        private double maxHedgeRatio = 0.1;
+
+        /**
+         * Number of recent latencies the percentile is computed over; no
+         * hedging happens until the window is full.
+         */
+        private int windowSize = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public double getMaxHedgeRatio() {
+            return maxHedgeRatio;
+        }
+
+        public void setMaxHedgeRatio(double maxHedgeRatio) {
+            this.maxHedgeRatio = maxHedgeRatio;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+    }
+}
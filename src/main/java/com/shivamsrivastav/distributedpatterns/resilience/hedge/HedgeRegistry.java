@@ -0,0 +1,110 @@
+package com.shivamsrivastav.distributedpatterns.resilience.hedge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates hedge policies on first use, together with their metrics:
+ * <ul>
+ * <li>{@code hedge.calls} / {@code hedge.sent} / {@code hedge.wins} /
+ * {@code hedge.budget.exhausted} counters — hedge rate and usefulness</li>
+ * <li>{@code hedge.latency} timer tagged {@code attempt=primary} (what the
+ * call would have taken without hedging) and {@code attempt=effective} (what
+ * the caller saw) — the difference in p99/p999 is the tail improvement</li>
+ * </ul>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@EnableConfigurationProperties(HedgeProperties.class)
+public class HedgeRegistry {
+
+    private final HedgeProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Instrumented> policies = new ConcurrentHashMap<>();
+
+    public HedgeRegistry(HedgeProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Instrumented get(String name) {
+        return policies.computeIfAbsent(name, this::create);
+    }
+
+    private Instrumented create(String name) {
+        HedgeProperties.Instance config = properties.getInstances().getOrDefault(name,
+                new HedgeProperties.Instance());
+        return new Instrumented(new HedgePolicy(name, config),
+                Counter.builder("hedge.calls").tag("name", name).register(meterRegistry),
+                Counter.builder("hedge.sent").tag("name", name).register(meterRegistry),
+                Counter.builder("hedge.wins").tag("name", name).register(meterRegistry),
+                Counter.builder("hedge.budget.exhausted").tag("name", name).register(meterRegistry),
+                latencyTimer(name, "primary"),
+                latencyTimer(name, "effective"));
+    }
+
+    private Timer latencyTimer(String name, String attempt) {
+        return Timer.builder("hedge.latency").tag("name", name).tag("attempt", attempt)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A policy and its meters.
+     */
+    public static class Instrumented {
+
+        private final HedgePolicy policy;
+        private final Counter calls;
+        private final Counter sent;
+        private final Counter wins;
+        private final Counter budgetExhausted;
+        private final Timer primaryLatency;
+        private final Timer effectiveLatency;
+
+        Instrumented(HedgePolicy policy, Counter calls, Counter sent, Counter wins, Counter budgetExhausted,
+                Timer primaryLatency, Timer effectiveLatency) {
+            this.policy = policy;
+            this.calls = calls;
+            this.sent = sent;
+            this.wins = wins;
+            this.budgetExhausted = budgetExhausted;
+            this.primaryLatency = primaryLatency;
+            this.effectiveLatency = effectiveLatency;
+        }
+
+        public HedgePolicy getPolicy() {
+            return policy;
+        }
+
+        public Counter getCalls() {
+            return calls;
+        }
+
+        public Counter getSent() {
+            return sent;
+        }
+
+        public Counter getWins() {
+            return wins;
+        }
+
+        public Counter getBudgetExhausted() {
+            return budgetExhausted;
+        }
+
+        public Timer getPrimaryLatency() {
+            return primaryLatency;
+        }
+
+        public Timer getEffectiveLatency() {
+            return effectiveLatency;
+        }
+    }
+}
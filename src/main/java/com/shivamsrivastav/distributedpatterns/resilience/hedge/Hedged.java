@@ -0,0 +1,29 @@
+package com.shivamsrivastav.distributedpatterns.resilience.hedge;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends a second, concurrent attempt when the first has not answered within
+ * the configured percentile of recent latency; the first response wins.
+ * <p>
+ * <b>Only put this on idempotent operations</b> — both attempts may reach the
+ * dependency. Instances are configured under
+ * {@code resilience.hedge.instances.<name>}.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Hedged {
+
+    /**
+     * Name of the hedge policy instance.
+     */
+    String name();
+}
@@ -0,0 +1,29 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Drop-in replacement for Resilience4j's semaphore {@code @Bulkhead} whose
+ * concurrency limit adapts to the observed latency and errors of the call.
+ * <p>
+ * Calls over the current limit are rejected immediately with
+ * {@link LimitExceededException}. Instances are configured under
+ * {@code resilience.adaptive-limiter.instances.<name>}.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Documented
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdaptiveBulkhead {
+
+    /**
+     * Name of the limiter instance.
+     */
+    String name();
+}
@@ -0,0 +1,88 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Applies {@link AdaptiveBulkhead}.
+ * <p>
+ * Ordered like Resilience4j's bulkhead aspect (innermost), so Retry and the
+ * Circuit Breaker wrap it. For methods returning a {@link CompletionStage}
+ * the permit is held until the stage completes.
+ * </p>
+ * <p>
+ * Timeouts, cancellations and rejections count as drops, a sign of
+ * saturation. Any other failure came back from the dependency and is fed to
+ * the algorithm as an error: it counts towards the error rate, which backs
+ * the limit off past {@code errorRateThreshold}, but its latency is not a
+ * sample, so a dependency that fails fast does not look like a fast one.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Aspect
+@Component
+public class AdaptiveBulkheadAspect implements Ordered {
+
+    private final AdaptiveLimiterRegistry registry;
+
+    public AdaptiveBulkheadAspect(AdaptiveLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("@annotation(adaptiveBulkhead)")
+    public Object limit(ProceedingJoinPoint joinPoint, AdaptiveBulkhead adaptiveBulkhead) throws Throwable {
+        AdaptiveConcurrencyLimiter limiter = registry.limiter(adaptiveBulkhead.name());
+        int inFlight = limiter.acquire();
+        long start = System.nanoTime();
+
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable t) {
+            limiter.release(System.nanoTime() - start, inFlight, outcomeOf(t));
+            throw t;
+        }
+
+        if (result instanceof CompletionStage<?> stage) {
+            return stage.whenComplete((value, error) -> limiter.release(System.nanoTime() - start, inFlight,
+                    error == null ? LimitAlgorithm.Outcome.SUCCESS : outcomeOf(error)));
+        }
+        limiter.release(System.nanoTime() - start, inFlight, LimitAlgorithm.Outcome.SUCCESS);
+        return result;
+    }
+
+    static LimitAlgorithm.Outcome outcomeOf(Throwable error) {
+        return isDrop(error) ? LimitAlgorithm.Outcome.DROPPED : LimitAlgorithm.Outcome.FAILED;
+    }
+
+    static boolean isDrop(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof TimeoutException
+                || cause instanceof CancellationException
+                || cause instanceof RejectedExecutionException
+                || cause instanceof BulkheadFullException
+                || cause instanceof LimitExceededException;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,110 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limiter whose limit is driven by a {@link LimitAlgorithm}.
+ * <p>
+ * Admission is a lock-free check of in-flight calls against the current
+ * limit; calls over the limit are rejected without waiting. Only the limit
+ * update on completion takes a lock.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final LimitAlgorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private double exactLimit;
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(String name, LimitAlgorithm algorithm, int initialLimit, int minLimit,
+            int maxLimit) {
+        this.name = name;
+        this.algorithm = algorithm;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.exactLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Admits a call or sheds it.
+     *
+     * @return Number of calls in flight including this one
+     * @throws LimitExceededException if the limit is reached
+     */
+    public int acquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                throw new LimitExceededException(name, limit);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit and feeds the call's outcome into the algorithm.
+     *
+     * @param rttNanos     Latency of the call
+     * @param inFlightSeen Value returned by {@link #acquire()}
+     * @param outcome      How the call ended
+     */
+    public void release(long rttNanos, int inFlightSeen, LimitAlgorithm.Outcome outcome) {
+        inFlight.decrementAndGet();
+        if (outcome == LimitAlgorithm.Outcome.DROPPED) {
+            dropped.increment();
+        } else if (outcome == LimitAlgorithm.Outcome.FAILED) {
+            failed.increment();
+        }
+        synchronized (this) {
+            double next = algorithm.update(exactLimit, System.nanoTime(), rttNanos, inFlightSeen, outcome);
+            exactLimit = Math.max(minLimit, Math.min(maxLimit, next));
+            limit = (int) exactLimit;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
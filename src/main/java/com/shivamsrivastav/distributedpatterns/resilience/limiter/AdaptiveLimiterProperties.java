@@ -0,0 +1,159 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration of adaptive limiter instances.
+ *
+ * @author Shivam Srivastav
+ */
+@ConfigurationProperties(prefix = "resilience.adaptive-limiter")
+public class AdaptiveLimiterProperties {
+
+    private Map<String, Instance> instances = new HashMap<>();
+
+    public Map<String, Instance> getInstances() {
+        return instances;
+    }
+
+    public void setInstances(Map<String, Instance> instances) {
+        this.instances = instances;
+    }
+
+    public enum Algorithm {
+        AIMD,
+        GRADIENT
+    }
+
+    /**
+     * Settings of one limiter.
+     */
+    public static class Instance {
+
+        private Algorithm algorithm = Algorithm.GRADIENT;
+        private int initialLimit = 10;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+
+        /**
+         * AIMD: calls slower than this count as congestion.
+         */
+        private Duration latencyThreshold = Duration.ofMillis(500);
+
+        /**
+         * AIMD: multiplier applied on congestion.
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * Share of failed calls above which the limit backs off (AIMD: over
+         * the last 20 calls; Gradient: per round trip).
+         */
+        private double errorRateThreshold = 0.5;
+
+        /**
+         * Gradient: how much recent latency may exceed the baseline.
+         */
+        private double tolerance = 1.5;
+
+        /**
+         * Gradient: weight of each new estimate.
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * Gradient: window over which the no-load latency baseline is taken.
+         */
+        private Duration baselineWindow = Duration.ofSeconds(10);
+
+        public LimitAlgorithm newAlgorithm() {
+            return algorithm == Algorithm.AIMD
+                    ? new AimdLimit(latencyThreshold.toNanos(), backoffRatio, errorRateThreshold)
+                    : new GradientLimit(tolerance, smoothing, baselineWindow.toNanos(), errorRateThreshold);
+        }
+
+        public Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(Algorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public double getErrorRateThreshold() {
+            return errorRateThreshold;
+        }
+
+        public void setErrorRateThreshold(double errorRateThreshold) {
+            this.errorRateThreshold = errorRateThreshold;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public Duration getBaselineWindow() {
+            return baselineWindow;
+        }
+
+        public void setBaselineWindow(Duration baselineWindow) {
+            this.baselineWindow = baselineWindow;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates adaptive limiters on first use and publishes their state as
+ * Micrometer metrics ({@code adaptive.limiter.*}, tagged by name).
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@EnableConfigurationProperties(AdaptiveLimiterProperties.class)
+public class AdaptiveLimiterRegistry {
+
+    private final AdaptiveLimiterProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveLimiterRegistry(AdaptiveLimiterProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public AdaptiveConcurrencyLimiter limiter(String name) {
+        return limiters.computeIfAbsent(name, this::create);
+    }
+
+    public Collection<AdaptiveConcurrencyLimiter> getAll() {
+        return limiters.values();
+    }
+
+    private AdaptiveConcurrencyLimiter create(String name) {
+        AdaptiveLimiterProperties.Instance config = properties.getInstances()
+                .getOrDefault(name, new AdaptiveLimiterProperties.Instance());
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(name, config.newAlgorithm(),
+                config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+
+        Gauge.builder("adaptive.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("name", name).register(meterRegistry);
+        Gauge.builder("adaptive.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("name", name).register(meterRegistry);
+        FunctionCounter.builder("adaptive.limiter.calls", limiter, AdaptiveConcurrencyLimiter::getAcceptedCount)
+                .tag("name", name).tag("outcome", "accepted").register(meterRegistry);
+        FunctionCounter.builder("adaptive.limiter.calls", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .tag("name", name).tag("outcome", "rejected").register(meterRegistry);
+        FunctionCounter.builder("adaptive.limiter.calls", limiter, AdaptiveConcurrencyLimiter::getFailedCount)
+                .tag("name", name).tag("outcome", "failed").register(meterRegistry);
+        FunctionCounter.builder("adaptive.limiter.calls", limiter, AdaptiveConcurrencyLimiter::getDroppedCount)
+                .tag("name", name).tag("outcome", "dropped").register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,70 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+/**
+ * Additive-increase / multiplicative-decrease.
+ * <p>
+ * A dropped call, one slower than {@code latencyThreshold}, or an error rate
+ * above {@code errorRateThreshold} over the last {@value #ERROR_WINDOW} calls
+ * multiplies the limit by {@code backoffRatio}; a fast success while the
+ * limiter is at least half used, and the error rate is within bounds, adds
+ * one. Only calls started after the previous decrease may trigger another
+ * one, so a burst of slow completions backs off once per round trip instead
+ * of once per call.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class AimdLimit implements LimitAlgorithm {
+
+    /**
+     * Calls the error rate is measured over.
+     */
+    static final int ERROR_WINDOW = 20;
+
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final double errorRateThreshold;
+
+    private long lastDecreaseNanos = Long.MIN_VALUE;
+    private int windowCalls;
+    private int windowErrors;
+
+    public AimdLimit(long latencyThresholdNanos, double backoffRatio, double errorRateThreshold) {
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.errorRateThreshold = errorRateThreshold;
+    }
+
+    @Override
+    public double update(double currentLimit, long nowNanos, long rttNanos, int inFlight, Outcome outcome) {
+        if (outcome == Outcome.DROPPED || rttNanos > latencyThresholdNanos) {
+            return decrease(currentLimit, nowNanos, rttNanos);
+        }
+        windowCalls++;
+        if (outcome == Outcome.FAILED) {
+            windowErrors++;
+        }
+        if (windowCalls >= ERROR_WINDOW) {
+            boolean tooManyErrors = windowErrors > errorRateThreshold * windowCalls;
+            windowCalls = 0;
+            windowErrors = 0;
+            if (tooManyErrors) {
+                return decrease(currentLimit, nowNanos, rttNanos);
+            }
+        }
+        // Don't grow while the window so far is over the error threshold
+        if (outcome == Outcome.SUCCESS && inFlight * 2 >= currentLimit
+                && windowErrors <= errorRateThreshold * windowCalls) {
+            return currentLimit + 1;
+        }
+        return currentLimit;
+    }
+
+    private double decrease(double currentLimit, long nowNanos, long rttNanos) {
+        if (nowNanos - rttNanos < lastDecreaseNanos) {
+            return currentLimit;
+        }
+        lastDecreaseNanos = nowNanos;
+        return currentLimit * backoffRatio;
+    }
+}
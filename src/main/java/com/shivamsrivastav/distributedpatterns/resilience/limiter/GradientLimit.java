@@ -0,0 +1,105 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+/**
+ * Gradient-based limit in the style of Netflix's Gradient2 / TCP Vegas.
+ * <p>
+ * Compares a short-term latency average against a no-load baseline, taken as
+ * the minimum latency seen over the previous {@code baselineWindow} (so
+ * queueing never inflates it, yet a dependency that becomes permanently
+ * slower is picked up within one window). While recent latency stays within
+ * {@code baseline * tolerance} the limit grows by a queue allowance of
+ * {@code sqrt(limit)}; above it the limit shrinks in proportion. Dropped calls
+ * (timeouts and rejections), or more failures in a round trip than
+ * {@code errorRateThreshold}, back off multiplicatively. Failures are not
+ * latency samples: a dependency that fails fast would otherwise drag the
+ * baseline down and read as a healthy one. The limit moves at most once per
+ * round trip, using the average latency of the successful calls completed in
+ * it, so it reacts to what the previous adjustment actually caused.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class GradientLimit implements LimitAlgorithm {
+
+    private static final double ERROR_BACKOFF = 0.9;
+
+    private final double tolerance;
+    private final double smoothing;
+    private final long baselineWindowNanos;
+    private final double errorRateThreshold;
+
+    private boolean started;
+    private long sampleStart;
+    private long sampleRttSum;
+    private int sampleCount;
+    private int sampleErrors;
+    private int sampleMaxInFlight;
+    private boolean sampleDropped;
+    private long lastAvgRtt;
+
+    private long baselineRtt = Long.MAX_VALUE;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private long windowStart;
+
+    public GradientLimit(double tolerance, double smoothing, long baselineWindowNanos, double errorRateThreshold) {
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.baselineWindowNanos = baselineWindowNanos;
+        this.errorRateThreshold = errorRateThreshold;
+    }
+
+    @Override
+    public double update(double currentLimit, long now, long rttNanos, int inFlight, Outcome outcome) {
+        if (!started) {
+            started = true;
+            sampleStart = now;
+            windowStart = now;
+        }
+        if (outcome == Outcome.DROPPED) {
+            sampleDropped = true;
+        } else if (outcome == Outcome.FAILED) {
+            sampleErrors++;
+        } else {
+            sampleRttSum += rttNanos;
+            sampleCount++;
+            sampleMaxInFlight = Math.max(sampleMaxInFlight, inFlight);
+            windowMinRtt = Math.min(windowMinRtt, rttNanos);
+            baselineRtt = Math.min(baselineRtt, rttNanos);
+        }
+        if (now - windowStart > baselineWindowNanos && windowMinRtt != Long.MAX_VALUE) {
+            baselineRtt = windowMinRtt;
+            windowMinRtt = Long.MAX_VALUE;
+            windowStart = now;
+        }
+
+        // Close the sample once a round trip has passed since the last update
+        if (now - sampleStart < lastAvgRtt || (sampleCount == 0 && sampleErrors == 0 && !sampleDropped)) {
+            return currentLimit;
+        }
+        if (sampleDropped || sampleErrors > errorRateThreshold * (sampleCount + sampleErrors)) {
+            return closeSample(now, currentLimit * ERROR_BACKOFF);
+        }
+        if (sampleCount == 0) {
+            // Only failures, within the tolerated rate: nothing to measure latency by
+            return closeSample(now, currentLimit);
+        }
+
+        double avgRtt = (double) sampleRttSum / sampleCount;
+        lastAvgRtt = (long) avgRtt;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRtt / avgRtt));
+        // Don't grow while the limiter is mostly idle
+        double allowance = sampleMaxInFlight * 2 < currentLimit ? 0 : Math.sqrt(currentLimit);
+        double target = currentLimit * gradient + allowance;
+        return closeSample(now, currentLimit * (1 - smoothing) + target * smoothing);
+    }
+
+    private double closeSample(long now, double newLimit) {
+        sampleStart = now;
+        sampleRttSum = 0;
+        sampleCount = 0;
+        sampleErrors = 0;
+        sampleMaxInFlight = 0;
+        sampleDropped = false;
+        return newLimit;
+    }
+}
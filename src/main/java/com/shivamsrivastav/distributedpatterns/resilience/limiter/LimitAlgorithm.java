@@ -0,0 +1,41 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+/**
+ * Computes the next concurrency limit from one completed call.
+ * Implementations are called under the limiter's lock and need not be
+ * thread-safe.
+ *
+ * @author Shivam Srivastav
+ */
+public interface LimitAlgorithm {
+
+    /**
+     * How a call ended, as far as the limit is concerned.
+     */
+    enum Outcome {
+        /**
+         * Answered; its latency is a sample.
+         */
+        SUCCESS,
+        /**
+         * Failed with an answer from the dependency; counts towards the
+         * error rate, but its latency (often that of a fast failure) is not
+         * a sample.
+         */
+        FAILED,
+        /**
+         * Timed out or was rejected: the dependency is saturated.
+         */
+        DROPPED
+    }
+
+    /**
+     * @param currentLimit Limit in effect for the call
+     * @param nowNanos     Time the call completed ({@link System#nanoTime()})
+     * @param rttNanos     Latency of the call
+     * @param inFlight     Calls in flight when it started
+     * @param outcome      How the call ended
+     * @return The new limit (clamped to the instance bounds by the caller)
+     */
+    double update(double currentLimit, long nowNanos, long rttNanos, int inFlight, Outcome outcome);
+}
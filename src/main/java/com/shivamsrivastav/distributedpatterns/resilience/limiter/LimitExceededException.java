@@ -0,0 +1,13 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+/**
+ * Thrown when a call is shed because the adaptive limit is reached.
+ *
+ * @author Shivam Srivastav
+ */
+public class LimitExceededException extends RuntimeException {
+
+    public LimitExceededException(String name, int limit) {
+        super("Adaptive limiter '" + name + "' is full (limit " + limit + ")");
+    }
+}
@@ -1,18 +1,24 @@
 package com.shivamsrivastav.distributedpatterns.resilience.service;
 
+import com.shivamsrivastav.distributedpatterns.resilience.fault.FaultInjector;
+import com.shivamsrivastav.distributedpatterns.resilience.hedge.Hedged;
+import com.shivamsrivastav.distributedpatterns.resilience.limiter.AdaptiveBulkhead;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service demonstrating Resilience4j patterns.
  * <p>
- * This simulates an unstable external service call.
+ * This simulates an unstable external service call; its latency and failure
+ * rate come from the {@link FaultInjector} (dependency
+ * {@value #FAULT_DEPENDENCY}, a 60% error rate by default).
  * Check application.properties for configuration thresholds.
  * </p>
  *
@@ -23,23 +29,60 @@ public class ResilientPaymentService {
 
     private static final Logger log = LoggerFactory.getLogger(ResilientPaymentService.class);
     private static final String SERVICE_NAME = "paymentService";
+    public static final String FAULT_DEPENDENCY = "paymentProvider";
+
+    private final FaultInjector faultInjector;
+
+    public ResilientPaymentService(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
 
     /**
      * Simulates a risky external call that might fail randomly.
-     * Protected by Circuit Breaker, Retry, and Bulkhead.
+     * Protected by Circuit Breaker, Retry, and an adaptive Bulkhead whose
+     * concurrency limit follows the dependency's latency. Slow calls are
+     * hedged; the simulated provider call has no side effects, so a duplicate
+     * attempt is harmless.
      *
      * @return Success message
      */
     @CircuitBreaker(name = SERVICE_NAME, fallbackMethod = "fallbackPayment")
     @Retry(name = SERVICE_NAME)
-    @Bulkhead(name = SERVICE_NAME)
+    @Hedged(name = SERVICE_NAME)
+    @AdaptiveBulkhead(name = SERVICE_NAME)
     public String processRiskyPayment() {
+        return callPaymentProvider();
+    }
+
+    /**
+     * Non-blocking variant of {@link #processRiskyPayment()}.
+     * <p>
+     * The call runs on the thread-pool bulkhead, is bounded by the TimeLimiter,
+     * and failed attempts are re-scheduled by Retry on a timer instead of
+     * sleeping, so no request thread is held while the dependency is down.
+     * Shares the circuit breaker with the synchronous variant since both guard
+     * the same dependency. The fallback sits on Retry (the outermost aspect) so
+     * that failures reach Retry before the fallback swallows them.
+     * </p>
+     *
+     * @return Future of the success message
+     */
+    @CircuitBreaker(name = SERVICE_NAME)
+    @Retry(name = SERVICE_NAME, fallbackMethod = "fallbackPaymentAsync")
+    @TimeLimiter(name = SERVICE_NAME)
+    @Bulkhead(name = SERVICE_NAME, type = Bulkhead.Type.THREADPOOL)
+    public CompletableFuture<String> processRiskyPaymentAsync() {
+        return CompletableFuture.completedFuture(callPaymentProvider());
+    }
+
+    private String callPaymentProvider() {
         log.info("Attempting risky payment processing...");
 
-        // Simulate Random Failure
-        if (new Random().nextInt(10) < 6) { // 60% failure chance
+        try {
+            faultInjector.inject(FAULT_DEPENDENCY);
+        } catch (RuntimeException e) {
             log.error("Payment Service failed!");
-            throw new RuntimeException("External Payment Service Unavailable");
+            throw new RuntimeException("External Payment Service Unavailable", e);
         }
 
         return "Payment Processed Successfully";
@@ -55,4 +98,15 @@ public class ResilientPaymentService {
         log.warn("Fallback triggered: {}", t.getMessage());
         return "Fallback: Payment Service is currently unavailable. Please try again later.";
     }
+
+    /**
+     * Fallback for {@link #processRiskyPaymentAsync()}; also covers an open
+     * circuit, TimeLimiter timeouts and a full thread-pool bulkhead.
+     *
+     * @param t The exception that caused the failure
+     * @return Completed future with the fallback response
+     */
+    public CompletableFuture<String> fallbackPaymentAsync(Throwable t) {
+        return CompletableFuture.completedFuture(fallbackPayment(t));
+    }
 }
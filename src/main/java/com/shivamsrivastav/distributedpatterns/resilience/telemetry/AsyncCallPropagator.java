@@ -0,0 +1,50 @@
+package com.shivamsrivastav.distributedpatterns.resilience.telemetry;
+
+import io.github.resilience4j.core.ContextPropagator;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Carries the asynchronous call being timed by
+ * {@link ResilienceTelemetryAspect} onto the scheduler thread that runs
+ * Retry's next attempt, where {@link ResilienceAttemptAspect} counts it.
+ * Retry schedules from the thread that completed the failed attempt, on
+ * which the attempt aspect binds the call while Retry's callback runs.
+ * <p>
+ * Each call holds its own {@link Optional}, so propagating does not allocate.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class AsyncCallPropagator implements ContextPropagator<ResilienceTelemetry.AsyncCall> {
+
+    private final Supplier<Optional<ResilienceTelemetry.AsyncCall>> retrieve;
+    private final Consumer<Optional<ResilienceTelemetry.AsyncCall>> copy;
+    private final Consumer<Optional<ResilienceTelemetry.AsyncCall>> clear;
+
+    AsyncCallPropagator(ResilienceTelemetry telemetry) {
+        this.retrieve = () -> {
+            ResilienceTelemetry.AsyncCall async = telemetry.context().async;
+            return async == null ? Optional.empty() : async.propagated;
+        };
+        this.copy = async -> telemetry.context().async = async.orElse(null);
+        this.clear = async -> telemetry.context().async = null;
+    }
+
+    @Override
+    public Supplier<Optional<ResilienceTelemetry.AsyncCall>> retrieve() {
+        return retrieve;
+    }
+
+    @Override
+    public Consumer<Optional<ResilienceTelemetry.AsyncCall>> copy() {
+        return copy;
+    }
+
+    @Override
+    public Consumer<Optional<ResilienceTelemetry.AsyncCall>> clear() {
+        return clear;
+    }
+}
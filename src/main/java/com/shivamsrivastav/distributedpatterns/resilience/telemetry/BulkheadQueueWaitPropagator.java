@@ -0,0 +1,75 @@
+package com.shivamsrivastav.distributedpatterns.resilience.telemetry;
+
+import io.github.resilience4j.core.ContextPropagator;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Measures how long a task waits in a thread-pool bulkhead's queue: the
+ * submit time is captured on the calling thread and the wait recorded when a
+ * bulkhead worker picks the task up.
+ * <p>
+ * Submit times are written into a ring of {@value #SLOTS} preallocated
+ * holders, each wrapped in a reused {@link Optional}, so a submission neither
+ * boxes nor allocates. A holder is only reused after {@value #SLOTS} later
+ * submissions, far more than a bulkhead keeps queued.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class BulkheadQueueWaitPropagator implements ContextPropagator<BulkheadQueueWaitPropagator.SubmitTime> {
+
+    private static final int SLOTS = 1024;
+
+    private final Optional<SubmitTime>[] ring;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Supplier<Optional<SubmitTime>> retrieve;
+    private final Consumer<Optional<SubmitTime>> copy;
+    private final Consumer<Optional<SubmitTime>> clear = submittedAt -> {
+    };
+
+    @SuppressWarnings("unchecked")
+    public BulkheadQueueWaitPropagator(Timer queueWait) {
+        this.ring = new Optional[SLOTS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            ring[slot] = Optional.of(new SubmitTime());
+        }
+        this.retrieve = () -> {
+            Optional<SubmitTime> holder = ring[next.getAndIncrement() & (SLOTS - 1)];
+            holder.get().nanos = System.nanoTime();
+            return holder;
+        };
+        this.copy = submittedAt -> {
+            if (submittedAt.isPresent()) {
+                queueWait.record(System.nanoTime() - submittedAt.get().nanos, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    @Override
+    public Supplier<Optional<SubmitTime>> retrieve() {
+        return retrieve;
+    }
+
+    @Override
+    public Consumer<Optional<SubmitTime>> copy() {
+        return copy;
+    }
+
+    @Override
+    public Consumer<Optional<SubmitTime>> clear() {
+        return clear;
+    }
+
+    /**
+     * When a task was handed to the bulkhead.
+     */
+    public static final class SubmitTime {
+        private volatile long nanos;
+    }
+}
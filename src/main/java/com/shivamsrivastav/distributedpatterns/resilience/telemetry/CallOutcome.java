@@ -0,0 +1,31 @@
+package com.shivamsrivastav.distributedpatterns.resilience.telemetry;
+
+/**
+ * How a call through the resilience decorators ended, as seen by the caller.
+ *
+ * @author Shivam Srivastav
+ */
+public enum CallOutcome {
+    /**
+     * Succeeded on the first attempt.
+     */
+    SUCCESS,
+    /**
+     * Succeeded after one or more retries.
+     */
+    RETRIED,
+    /**
+     * Failed (or was rejected) and a fallback produced the result.
+     */
+    FALLBACK,
+    /**
+     * The exception reached the caller.
+     */
+    FAILED;
+
+    private final String tag = name().toLowerCase();
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,106 @@
+package com.shivamsrivastav.distributedpatterns.resilience.telemetry;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Counts and classifies the attempts of a call timed by
+ * {@link ResilienceTelemetryAspect}.
+ * <p>
+ * Ordered inside the Circuit Breaker, so it runs once per attempt that the
+ * circuit breaker lets through and sees how that attempt ended before any
+ * fallback replaces it. It only updates the calling thread's
+ * {@link ResilienceTelemetry.CallContext}, or for an asynchronous method the
+ * {@link ResilienceTelemetry.AsyncCall} propagated to the thread the attempt
+ * starts on.
+ * </p>
+ * <p>
+ * An asynchronous attempt is handed on through a stage of its own, completed
+ * with the call bound to the completing thread. The Circuit Breaker's and
+ * Retry's callbacks run inside that scope, so when Retry schedules the next
+ * attempt the {@link AsyncCallPropagator} on its scheduler takes the call
+ * along; otherwise it would be lost on whichever pool thread completed the
+ * attempt.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Aspect
+@Component
+public class ResilienceAttemptAspect implements Ordered {
+
+    private final ResilienceTelemetry telemetry;
+
+    public ResilienceAttemptAspect(ResilienceTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    @Around("@annotation(io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker)"
+            + " || @annotation(io.github.resilience4j.retry.annotation.Retry)")
+    public Object attempt(ProceedingJoinPoint joinPoint) throws Throwable {
+        ResilienceTelemetry.CallContext call = telemetry.context();
+        if (CompletionStage.class.isAssignableFrom(((MethodSignature) joinPoint.getSignature()).getReturnType())) {
+            return asyncAttempt(joinPoint, call);
+        }
+        if (!call.active) {
+            return joinPoint.proceed();
+        }
+        call.attempts++;
+        try {
+            Object result = joinPoint.proceed();
+            call.lastAttempt = ResilienceTelemetry.ATTEMPT_SUCCESS;
+            return result;
+        } catch (Throwable t) {
+            call.lastAttempt = ResilienceTelemetry.ATTEMPT_FAILED;
+            throw t;
+        }
+    }
+
+    private Object asyncAttempt(ProceedingJoinPoint joinPoint, ResilienceTelemetry.CallContext call)
+            throws Throwable {
+        ResilienceTelemetry.AsyncCall async = call.async;
+        if (async == null) {
+            return joinPoint.proceed();
+        }
+        async.attempts++;
+        async.lastAttempt = ResilienceTelemetry.ATTEMPT_NONE;
+        CompletionStage<?> attempt;
+        try {
+            attempt = (CompletionStage<?>) joinPoint.proceed();
+        } catch (Throwable t) {
+            async.lastAttempt = ResilienceTelemetry.ATTEMPT_FAILED;
+            throw t;
+        }
+        CompletableFuture<Object> settled = new CompletableFuture<>();
+        attempt.whenComplete((value, error) -> {
+            async.lastAttempt = error == null ? ResilienceTelemetry.ATTEMPT_SUCCESS
+                    : ResilienceTelemetry.ATTEMPT_FAILED;
+            ResilienceTelemetry.CallContext completing = telemetry.context();
+            ResilienceTelemetry.AsyncCall outer = completing.async;
+            completing.async = async;
+            try {
+                if (error == null) {
+                    settled.complete(value);
+                } else {
+                    settled.completeExceptionally(error);
+                }
+            } finally {
+                completing.async = outer;
+            }
+        });
+        return settled;
+    }
+
+    @Override
+    public int getOrder() {
+        // Circuit Breaker's aspect sits at LOWEST_PRECEDENCE - 3
+        return Ordered.LOWEST_PRECEDENCE - 2;
+    }
+}
@@ -0,0 +1,29 @@
+package com.shivamsrivastav.distributedpatterns.resilience.telemetry;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Compact, scrape-friendly view of {@link ResilienceTelemetry}, one entry per
+ * resilience instance, at {@code /actuator/resilience}.
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@Endpoint(id = "resilience")
+public class ResilienceEndpoint {
+
+    private final ResilienceTelemetry telemetry;
+
+    public ResilienceEndpoint(ResilienceTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> resilience() {
+        return telemetry.snapshot();
+    }
+}
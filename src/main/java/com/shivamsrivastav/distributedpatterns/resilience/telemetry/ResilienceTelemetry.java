@@ -0,0 +1,318 @@
+package com.shivamsrivastav.distributedpatterns.resilience.telemetry;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Per-instance telemetry for the Resilience4j decorators.
+ * <ul>
+ * <li>{@code resilience.calls} — end-to-end latency as seen by the caller,
+ * tagged by instance and {@link CallOutcome}, with HDR-backed percentiles
+ * (p50/p90/p99/p999) and a percentile histogram for scraping</li>
+ * <li>{@code resilience.retry.attempts} — attempts per call (1 = no retry)</li>
+ * <li>{@code resilience.circuitbreaker.transitions} — state transitions,
+ * also kept with timestamps in a {@link StateTransitionLog}</li>
+ * <li>{@code resilience.bulkhead.queue.wait} — time spent queued in a
+ * thread-pool bulkhead (see {@link BulkheadQueueWaitPropagator})</li>
+ * </ul>
+ * Meters are registered when an instance is first seen; recording a call
+ * only indexes preregistered timers and updates a reused thread-local
+ * context, so it does not allocate. An asynchronous call is tracked by a
+ * pooled {@link AsyncCall} instead, which {@link AsyncCallPropagator} carries
+ * onto the threads its retries run on; observing its futures costs one
+ * dependent stage per call and per attempt. Attempts are classified by
+ * {@link ResilienceAttemptAspect} rather than by circuit-breaker events, whose
+ * event objects would be created on every call; only state transitions are
+ * subscribed to, and failure rates come from the circuit breaker's own
+ * metrics.
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+public class ResilienceTelemetry {
+
+    private static final int TRANSITION_LOG_SIZE = 64;
+    private static final CallOutcome[] OUTCOMES = CallOutcome.values();
+
+    /**
+     * Outcome of the latest circuit-breaker attempt on this thread.
+     */
+    static final int ATTEMPT_NONE = 0;
+    static final int ATTEMPT_SUCCESS = 1;
+    static final int ATTEMPT_FAILED = 2;
+
+    /**
+     * Reusable completion callbacks per instance, for asynchronous calls.
+     */
+    private static final int ASYNC_CALLBACKS = 64;
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, InstanceTelemetry> instances = new ConcurrentHashMap<>();
+    private final ThreadLocal<CallContext> context = ThreadLocal.withInitial(CallContext::new);
+    private final AsyncCallPropagator asyncCallPropagator = new AsyncCallPropagator(this);
+
+    public ResilienceTelemetry(MeterRegistry meterRegistry, CircuitBreakerRegistry circuitBreakerRegistry,
+            RetryRegistry retryRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::attach);
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> attach(event.getAddedEntry()));
+        retryRegistry.getAllRetries().forEach(this::attach);
+        retryRegistry.getEventPublisher().onEntryAdded(event -> attach(event.getAddedEntry()));
+    }
+
+    private void attach(CircuitBreaker circuitBreaker) {
+        InstanceTelemetry telemetry = instance(circuitBreaker.getName());
+        telemetry.circuitBreaker = circuitBreaker;
+        circuitBreaker.getEventPublisher()
+                .onStateTransition(event -> telemetry.recordTransition(
+                        event.getCreationTime().toInstant().toEpochMilli(),
+                        event.getStateTransition().getFromState(),
+                        event.getStateTransition().getToState()));
+    }
+
+    private void attach(Retry retry) {
+        instance(retry.getName());
+    }
+
+    /**
+     * @return The telemetry of an instance, registering its meters on first use
+     */
+    public InstanceTelemetry instance(String name) {
+        return instances.computeIfAbsent(name, key -> new InstanceTelemetry(key, meterRegistry));
+    }
+
+    CallContext context() {
+        return context.get();
+    }
+
+    /**
+     * @return Propagator of the asynchronous call in progress, for the
+     *         Resilience4j executors its attempts run on
+     */
+    public AsyncCallPropagator asyncCallPropagator() {
+        return asyncCallPropagator;
+    }
+
+    /**
+     * @return Compact per-instance summary, for the {@code resilience} endpoint
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        instances.forEach((name, telemetry) -> snapshot.put(name, telemetry.snapshot(meterRegistry)));
+        return snapshot;
+    }
+
+    /**
+     * Mutable per-thread state of the call in progress; reused across calls.
+     */
+    static class CallContext {
+        boolean active;
+        int attempts;
+        int lastAttempt;
+        AsyncCall async;
+    }
+
+    /**
+     * Meters of one named instance (shared by its circuit breaker and retry).
+     */
+    public static class InstanceTelemetry {
+
+        private final String name;
+        private final Timer[] latencyByOutcome = new Timer[OUTCOMES.length];
+        private final DistributionSummary retryAttempts;
+        private final StateTransitionLog transitions = new StateTransitionLog(TRANSITION_LOG_SIZE);
+        private final AsyncCall[] asyncCalls = new AsyncCall[ASYNC_CALLBACKS];
+        private final AtomicIntegerArray asyncCallsInUse = new AtomicIntegerArray(ASYNC_CALLBACKS);
+        private final AtomicInteger nextAsyncCall = new AtomicInteger();
+        private volatile CircuitBreaker circuitBreaker;
+
+        InstanceTelemetry(String name, MeterRegistry meterRegistry) {
+            this.name = name;
+            for (int slot = 0; slot < ASYNC_CALLBACKS; slot++) {
+                asyncCalls[slot] = new AsyncCall(this, slot);
+            }
+            for (CallOutcome outcome : OUTCOMES) {
+                latencyByOutcome[outcome.ordinal()] = Timer.builder("resilience.calls")
+                        .description("End-to-end latency of calls through the resilience decorators")
+                        .tag("name", name)
+                        .tag("outcome", outcome.tag())
+                        .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(meterRegistry);
+            }
+            this.retryAttempts = DistributionSummary.builder("resilience.retry.attempts")
+                    .description("Attempts per call, including the first")
+                    .tag("name", name)
+                    .serviceLevelObjectives(1, 2, 3, 4, 5)
+                    .register(meterRegistry);
+        }
+
+        public void recordCall(CallOutcome outcome, long latencyNanos, int retries) {
+            latencyByOutcome[outcome.ordinal()].record(latencyNanos, TimeUnit.NANOSECONDS);
+            retryAttempts.record(retries + 1);
+        }
+
+        public void recordCall(CallOutcome outcome, long latencyNanos) {
+            latencyByOutcome[outcome.ordinal()].record(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Takes the state of an asynchronous call started at
+         * {@code startNanos}; as its completion callback it records the call
+         * and frees itself. Only allocates when all of them are in use.
+         */
+        AsyncCall startAsync(long startNanos) {
+            int from = nextAsyncCall.getAndIncrement();
+            for (int i = 0; i < ASYNC_CALLBACKS; i++) {
+                int slot = (from + i) & (ASYNC_CALLBACKS - 1);
+                if (asyncCallsInUse.compareAndSet(slot, 0, 1)) {
+                    AsyncCall call = asyncCalls[slot];
+                    call.startNanos = startNanos;
+                    return call;
+                }
+            }
+            AsyncCall call = new AsyncCall(this, -1);
+            call.startNanos = startNanos;
+            return call;
+        }
+
+        void recordTransition(long epochMillis, CircuitBreaker.State from, CircuitBreaker.State to) {
+            transitions.record(epochMillis, from, to);
+        }
+
+        Map<String, Object> snapshot(MeterRegistry meterRegistry) {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+
+            Map<String, Object> calls = new LinkedHashMap<>();
+            for (CallOutcome outcome : OUTCOMES) {
+                calls.put(outcome.tag(), summarize(latencyByOutcome[outcome.ordinal()].takeSnapshot()));
+            }
+            snapshot.put("calls", calls);
+
+            HistogramSnapshot retries = retryAttempts.takeSnapshot();
+            Map<String, Object> retryStats = new LinkedHashMap<>();
+            retryStats.put("count", retries.count());
+            retryStats.put("mean", round(retries.mean()));
+            retryStats.put("max", retries.max());
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            for (var bucket : retries.histogramCounts()) {
+                buckets.put("le" + (long) bucket.bucket(), (long) bucket.count());
+            }
+            retryStats.put("buckets", buckets);
+            snapshot.put("retryAttempts", retryStats);
+
+            Map<String, Object> circuitBreakerStats = new LinkedHashMap<>();
+            CircuitBreaker breaker = circuitBreaker;
+            if (breaker != null) {
+                CircuitBreaker.Metrics metrics = breaker.getMetrics();
+                circuitBreakerStats.put("state", breaker.getState());
+                circuitBreakerStats.put("failureRate", metrics.getFailureRate());
+                circuitBreakerStats.put("slowCallRate", metrics.getSlowCallRate());
+                circuitBreakerStats.put("bufferedCalls", metrics.getNumberOfBufferedCalls());
+                circuitBreakerStats.put("failedCalls", metrics.getNumberOfFailedCalls());
+                circuitBreakerStats.put("notPermittedCalls", metrics.getNumberOfNotPermittedCalls());
+            }
+            circuitBreakerStats.put("transitions", transitions.getRecorded());
+            circuitBreakerStats.put("recent", transitions.snapshot());
+            snapshot.put("circuitBreaker", circuitBreakerStats);
+
+            Timer queueWait = meterRegistry.find("resilience.bulkhead.queue.wait").tag("name", name).timer();
+            if (queueWait != null) {
+                snapshot.put("bulkheadQueueWait", summarize(queueWait.takeSnapshot()));
+            }
+            return snapshot;
+        }
+
+        private static Map<String, Object> summarize(HistogramSnapshot histogram) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", histogram.count());
+            summary.put("meanMs", round(histogram.mean(TimeUnit.MILLISECONDS)));
+            for (ValueAtPercentile percentile : histogram.percentileValues()) {
+                summary.put("p" + percentileLabel(percentile.percentile()),
+                        round(percentile.value(TimeUnit.MILLISECONDS)));
+            }
+            summary.put("maxMs", round(histogram.max(TimeUnit.MILLISECONDS)));
+            return summary;
+        }
+
+        private static String percentileLabel(double percentile) {
+            // 0.5 -> "50", 0.99 -> "99", 0.999 -> "999"
+            String digits = Double.toString(percentile).substring(2);
+            return digits.length() == 1 ? digits + "0" : digits;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+
+    /**
+     * State and completion callback of one asynchronous call, reused once it
+     * has run. Its attempts run one after another, possibly on different
+     * threads, each handing over to the next through a future.
+     */
+    static final class AsyncCall implements BiConsumer<Object, Throwable> {
+
+        private final InstanceTelemetry instance;
+        private final int slot;
+        /**
+         * Reused by {@link AsyncCallPropagator}, so propagating does not allocate.
+         */
+        final Optional<AsyncCall> propagated = Optional.of(this);
+        private long startNanos;
+        volatile int attempts;
+        volatile int lastAttempt;
+
+        AsyncCall(InstanceTelemetry instance, int slot) {
+            this.instance = instance;
+            this.slot = slot;
+        }
+
+        /**
+         * Classifies the call like a synchronous one: a result although the
+         * last attempt failed or was not permitted came from the fallback.
+         */
+        @Override
+        public void accept(Object value, Throwable error) {
+            long latency = System.nanoTime() - startNanos;
+            int retries = Math.max(0, attempts - 1);
+            CallOutcome outcome;
+            if (error != null) {
+                outcome = CallOutcome.FAILED;
+            } else if (lastAttempt != ATTEMPT_SUCCESS) {
+                outcome = CallOutcome.FALLBACK;
+            } else {
+                outcome = retries > 0 ? CallOutcome.RETRIED : CallOutcome.SUCCESS;
+            }
+            instance.recordCall(outcome, latency, retries);
+            attempts = 0;
+            lastAttempt = ATTEMPT_NONE;
+            if (slot >= 0) {
+                instance.asyncCallsInUse.set(slot, 0);
+            }
+        }
+    }
+}
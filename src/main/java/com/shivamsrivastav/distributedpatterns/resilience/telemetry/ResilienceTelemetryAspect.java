@@ -0,0 +1,111 @@
+package com.shivamsrivastav.distributedpatterns.resilience.telemetry;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every method decorated with {@link CircuitBreaker} or {@link Retry}
+ * and classifies how it ended.
+ * <p>
+ * Ordered outside Retry (the outermost Resilience4j aspect), so it sees what
+ * the caller sees: the retries taken and whether a fallback replaced the
+ * error. Each attempt is counted and classified by
+ * {@link ResilienceAttemptAspect}: on the calling thread for synchronous
+ * methods, and through the call's {@link ResilienceTelemetry.AsyncCall} for
+ * asynchronous ones, whose outcome is settled when their future completes.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Aspect
+@Component
+public class ResilienceTelemetryAspect implements Ordered {
+
+    private final ResilienceTelemetry telemetry;
+    private final ConcurrentHashMap<Method, ResilienceTelemetry.InstanceTelemetry> byMethod =
+            new ConcurrentHashMap<>();
+
+    public ResilienceTelemetryAspect(ResilienceTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    @Around("@annotation(io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker)"
+            + " || @annotation(io.github.resilience4j.retry.annotation.Retry)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ResilienceTelemetry.InstanceTelemetry instance = byMethod.computeIfAbsent(method, this::resolve);
+
+        if (CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+            return recordAsync(joinPoint, instance);
+        }
+
+        ResilienceTelemetry.CallContext call = telemetry.context();
+        // Save the enclosing call's state, if any, so nested decorated calls don't clobber it
+        boolean outerActive = call.active;
+        int outerAttempts = call.attempts;
+        int outerLastAttempt = call.lastAttempt;
+        call.active = true;
+        call.attempts = 0;
+        call.lastAttempt = ResilienceTelemetry.ATTEMPT_NONE;
+
+        long start = System.nanoTime();
+        CallOutcome outcome = CallOutcome.FAILED;
+        try {
+            Object result = joinPoint.proceed();
+            if (call.lastAttempt != ResilienceTelemetry.ATTEMPT_SUCCESS) {
+                // The last attempt failed or was not permitted, yet a result came back
+                outcome = CallOutcome.FALLBACK;
+            } else {
+                outcome = call.attempts > 1 ? CallOutcome.RETRIED : CallOutcome.SUCCESS;
+            }
+            return result;
+        } finally {
+            instance.recordCall(outcome, System.nanoTime() - start, Math.max(0, call.attempts - 1));
+            call.active = outerActive;
+            call.attempts = outerAttempts;
+            call.lastAttempt = outerLastAttempt;
+        }
+    }
+
+    private Object recordAsync(ProceedingJoinPoint joinPoint, ResilienceTelemetry.InstanceTelemetry instance)
+            throws Throwable {
+        long start = System.nanoTime();
+        ResilienceTelemetry.AsyncCall async = instance.startAsync(start);
+        ResilienceTelemetry.CallContext call = telemetry.context();
+        ResilienceTelemetry.AsyncCall outer = call.async;
+        call.async = async;
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable t) {
+            async.accept(null, t);
+            throw t;
+        } finally {
+            call.async = outer;
+        }
+        ((CompletionStage<?>) result).whenComplete(async);
+        return result;
+    }
+
+    private ResilienceTelemetry.InstanceTelemetry resolve(Method method) {
+        CircuitBreaker circuitBreaker = method.getAnnotation(CircuitBreaker.class);
+        String name = circuitBreaker != null ? circuitBreaker.name() : method.getAnnotation(Retry.class).name();
+        return telemetry.instance(name);
+    }
+
+    @Override
+    public int getOrder() {
+        // Retry's aspect sits at LOWEST_PRECEDENCE - 4
+        return Ordered.LOWEST_PRECEDENCE - 5;
+    }
+}
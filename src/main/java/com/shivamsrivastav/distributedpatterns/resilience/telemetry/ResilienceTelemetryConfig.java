@@ -0,0 +1,99 @@
+package com.shivamsrivastav.distributedpatterns.resilience.telemetry;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.common.bulkhead.configuration.ThreadPoolBulkheadConfigCustomizer;
+import io.github.resilience4j.core.ContextAwareScheduledThreadPoolExecutor;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.ThreadPoolBulkheadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Hooks telemetry into Resilience4j's threads: one queue-wait customizer is
+ * registered for every instance under
+ * {@code resilience4j.thread-pool-bulkhead.instances}, and the scheduler of
+ * the Retry and TimeLimiter aspects carries the asynchronous call being timed
+ * on to the next attempt.
+ *
+ * @author Shivam Srivastav
+ */
+@Configuration
+public class ResilienceTelemetryConfig {
+
+    /**
+     * Replaces the aspects' default scheduler (so
+     * {@code resilience4j.scheduled.executor.*} must stay unset, or there
+     * would be two).
+     */
+    @Bean
+    ContextAwareScheduledThreadPoolExecutor resilienceScheduledExecutor(ResilienceTelemetry telemetry) {
+        return ContextAwareScheduledThreadPoolExecutor.newScheduledThreadPool()
+                .corePoolSize(Runtime.getRuntime().availableProcessors())
+                .contextPropagators(telemetry.asyncCallPropagator())
+                .build();
+    }
+
+    @Bean
+    static BeanDefinitionRegistryPostProcessor bulkheadQueueWaitCustomizers(Environment environment) {
+        return registry -> {
+            Set<String> names = Binder.get(environment)
+                    .bind("resilience4j.thread-pool-bulkhead", ThreadPoolBulkheadProperties.class)
+                    .map(properties -> properties.getInstances().keySet())
+                    .orElse(Set.of());
+            for (String name : names) {
+                String beanName = name + "QueueWaitCustomizer";
+                if (registry.containsBeanDefinition(beanName)) {
+                    // Already in the AOT-generated bean definitions
+                    continue;
+                }
+                AbstractBeanDefinition customizer = BeanDefinitionBuilder
+                        .genericBeanDefinition(QueueWaitCustomizer.class)
+                        .addConstructorArgValue(name)
+                        .setAutowireMode(AbstractBeanDefinition.AUTOWIRE_CONSTRUCTOR)
+                        .setRole(BeanDefinition.ROLE_INFRASTRUCTURE)
+                        .getBeanDefinition();
+                registry.registerBeanDefinition(beanName, customizer);
+            }
+        };
+    }
+
+    /**
+     * Adds a {@link BulkheadQueueWaitPropagator} to one thread-pool bulkhead.
+     */
+    static class QueueWaitCustomizer implements ThreadPoolBulkheadConfigCustomizer {
+
+        private final String name;
+        private final BulkheadQueueWaitPropagator propagator;
+
+        QueueWaitCustomizer(String name, MeterRegistry meterRegistry) {
+            this.name = name;
+            Timer queueWait = Timer.builder("resilience.bulkhead.queue.wait")
+                    .description("Time a task waits in the thread-pool bulkhead queue")
+                    .tag("name", name)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .minimumExpectedValue(Duration.ofNanos(1000))
+                    .register(meterRegistry);
+            this.propagator = new BulkheadQueueWaitPropagator(queueWait);
+        }
+
+        @Override
+        public void customize(ThreadPoolBulkheadConfig.Builder builder) {
+            builder.contextPropagator(propagator);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+    }
+}
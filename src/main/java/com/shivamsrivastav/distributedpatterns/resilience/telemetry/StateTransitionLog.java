@@ -0,0 +1,60 @@
+package com.shivamsrivastav.distributedpatterns.resilience.telemetry;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-size ring of the most recent circuit-breaker state transitions.
+ * Slots are preallocated, so recording a transition allocates nothing.
+ *
+ * @author Shivam Srivastav
+ */
+public class StateTransitionLog {
+
+    private static final CircuitBreaker.State[] STATES = CircuitBreaker.State.values();
+
+    private final long[] timestamps;
+    private final byte[] fromStates;
+    private final byte[] toStates;
+    private long recorded;
+
+    public StateTransitionLog(int capacity) {
+        this.timestamps = new long[capacity];
+        this.fromStates = new byte[capacity];
+        this.toStates = new byte[capacity];
+    }
+
+    public synchronized void record(long epochMillis, CircuitBreaker.State from, CircuitBreaker.State to) {
+        int slot = (int) (recorded % timestamps.length);
+        timestamps[slot] = epochMillis;
+        fromStates[slot] = (byte) from.ordinal();
+        toStates[slot] = (byte) to.ordinal();
+        recorded++;
+    }
+
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * @return The retained transitions, oldest first
+     */
+    public synchronized List<Map<String, Object>> snapshot() {
+        int size = (int) Math.min(recorded, timestamps.length);
+        List<Map<String, Object>> transitions = new ArrayList<>(size);
+        for (long i = recorded - size; i < recorded; i++) {
+            int slot = (int) (i % timestamps.length);
+            Map<String, Object> transition = new LinkedHashMap<>();
+            transition.put("at", Instant.ofEpochMilli(timestamps[slot]).toString());
+            transition.put("from", STATES[fromStates[slot]]);
+            transition.put("to", STATES[toStates[slot]]);
+            transitions.add(transition);
+        }
+        return transitions;
+    }
+}
@@ -1,14 +1,25 @@
 package com.shivamsrivastav.distributedpatterns.saga.controller;
 
+import com.shivamsrivastav.distributedpatterns.common.datasource.ShardRouter;
 import com.shivamsrivastav.distributedpatterns.outbox.model.OutboxEvent;
 import com.shivamsrivastav.distributedpatterns.outbox.repository.OutboxRepository;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline.Deadline;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline.SagaDeadlineProperties;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.OrderStatus;
 import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.SagaOrder;
 import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.SagaOrderRepository;
 import com.shivamsrivastav.distributedpatterns.saga.orchestration.service.OrderSagaOrchestrator;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.service.OrderStatusCounters;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller to trigger the Saga orchestration flow and view data.
@@ -19,36 +30,111 @@ import java.util.List;
 @RequestMapping("/api/saga")
 public class SagaController {
 
+    /**
+     * Time budget of the request in milliseconds, as set by the client.
+     */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private static final int MAX_LIMIT = 1000;
+
+    /**
+     * Newest first; orders without a creation time (from before it was
+     * recorded) last.
+     */
+    private static final Comparator<SagaOrder> NEWEST_FIRST = Comparator.comparing(SagaOrder::getCreatedAt,
+            Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())).reversed();
+
     private final OrderSagaOrchestrator sagaOrchestrator;
     private final SagaOrderRepository sagaOrderRepository;
     private final OutboxRepository outboxRepository;
+    private final ShardRouter shardRouter;
+    private final SagaDeadlineProperties deadlineProperties;
+    private final OrderStatusCounters statusCounters;
 
     public SagaController(OrderSagaOrchestrator sagaOrchestrator, SagaOrderRepository sagaOrderRepository,
-            OutboxRepository outboxRepository) {
+            OutboxRepository outboxRepository, ShardRouter shardRouter, SagaDeadlineProperties deadlineProperties,
+            OrderStatusCounters statusCounters) {
         this.sagaOrchestrator = sagaOrchestrator;
         this.sagaOrderRepository = sagaOrderRepository;
         this.outboxRepository = outboxRepository;
+        this.shardRouter = shardRouter;
+        this.deadlineProperties = deadlineProperties;
+        this.statusCounters = statusCounters;
     }
 
     /**
-     * Creates an order using the Saga Orchestration pattern.
+     * Creates an order using the Saga Orchestration pattern, on the shard of
+     * its customer. The saga's deadline is the client's timeout
+     * ({@value #TIMEOUT_HEADER}) or the configured default.
      *
-     * @param order The order details
+     * @param order     The order details
+     * @param timeoutMs The client's time budget, if sent
      * @return The processed order with final status
      */
     @PostMapping("/orders")
-    public ResponseEntity<SagaOrder> createOrder(@RequestBody SagaOrder order) {
-        SagaOrder result = sagaOrchestrator.createOrder(order);
+    public ResponseEntity<SagaOrder> createOrder(@RequestBody SagaOrder order,
+            @RequestHeader(name = TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        Deadline deadline = deadlineProperties.deadlineFor(timeoutMs);
+        SagaOrder result = shardRouter.onShard(shardRouter.shardFor(order.getCustomerId()),
+                () -> sagaOrchestrator.createOrder(order, deadline));
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Lists orders, newest first, at most {@code limit} of them; each lookup,
+     * with or without a filter, is read through an index. A customer's orders
+     * are read from its shard only.
+     *
+     * @param customerId Orders of this customer, optionally also by status
+     * @param status     Orders in this status
+     * @param from       Orders created at or after this time (ISO-8601)
+     * @param to         With {@code from}: orders created before this time,
+     *                   default now
+     * @param limit      Maximum number of orders
+     */
     @GetMapping("/orders")
-    public ResponseEntity<List<SagaOrder>> getAllOrders() {
-        return ResponseEntity.ok(sagaOrderRepository.findAll());
+    public ResponseEntity<List<SagaOrder>> getOrders(@RequestParam(required = false) String customerId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        if (customerId != null) {
+            return ResponseEntity.ok(shardRouter.onShard(shardRouter.shardFor(customerId), () -> status == null
+                    ? sagaOrderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId, page)
+                    : sagaOrderRepository.findByCustomerIdAndStatusOrderByCreatedAtDesc(customerId, status, page)));
+        }
+        if (status != null) {
+            return ResponseEntity.ok(newest(shardRouter.gather(
+                    () -> sagaOrderRepository.findByStatusOrderByCreatedAtDesc(status, page)), page));
+        }
+        if (from != null) {
+            LocalDateTime upper = to != null ? to : LocalDateTime.now();
+            return ResponseEntity.ok(newest(shardRouter.gather(
+                    () -> sagaOrderRepository.findCreatedBetween(from, upper, page)), page));
+        }
+        return ResponseEntity.ok(newest(shardRouter.gather(
+                () -> sagaOrderRepository.findAllByOrderByCreatedAtDesc(page)), page));
+    }
+
+    /**
+     * Number of orders in each status, from the in-memory counters rather than
+     * a scan of {@code saga_orders}.
+     */
+    @GetMapping("/orders/status-counts")
+    public ResponseEntity<Map<OrderStatus, Long>> getStatusCounts() {
+        return ResponseEntity.ok(statusCounters.snapshot());
+    }
+
+    /**
+     * Merges per-shard pages, each newest first, into one page.
+     */
+    private static List<SagaOrder> newest(List<SagaOrder> orders, Pageable page) {
+        return orders.stream().sorted(NEWEST_FIRST).limit(page.getPageSize()).toList();
     }
 
     @GetMapping("/outbox")
     public ResponseEntity<List<OutboxEvent>> getAllOutboxEvents() {
-        return ResponseEntity.ok(outboxRepository.findAll());
+        return ResponseEntity.ok(shardRouter.gather(outboxRepository::findAll));
     }
 }
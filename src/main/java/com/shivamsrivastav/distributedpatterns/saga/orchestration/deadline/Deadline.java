@@ -0,0 +1,56 @@
+package com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which a saga must be finished.
+ * <p>
+ * Created once per saga and handed to every step, which gets what is left of
+ * the budget rather than a fixed timeout of its own. Based on
+ * {@link System#nanoTime()}, so it is immune to wall-clock changes.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+public class Deadline {
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param budget Time from now until the deadline
+     * @return A deadline {@code budget} from now
+     */
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * @return Time left, never negative
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @param step Step about to run
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check(String step) {
+        if (isExpired()) {
+            throw new DeadlineExceededException(step, "Deadline exceeded before " + step);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + remaining().toMillis() + "ms}";
+    }
+}
@@ -0,0 +1,29 @@
+package com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline;
+
+/**
+ * Thrown when a saga step is skipped or cut short because the saga's
+ * {@link Deadline} ran out.
+ *
+ * @author Shivam Srivastav
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private final String step;
+
+    public DeadlineExceededException(String step, String message) {
+        super(message);
+        this.step = step;
+    }
+
+    public DeadlineExceededException(String step, String message, Throwable cause) {
+        super(message, cause);
+        this.step = step;
+    }
+
+    /**
+     * @return The step that did not finish in time
+     */
+    public String getStep() {
+        return step;
+    }
+}
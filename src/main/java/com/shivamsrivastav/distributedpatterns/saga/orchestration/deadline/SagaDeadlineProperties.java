@@ -0,0 +1,65 @@
+package com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Time budget of a saga.
+ *
+ * @author Shivam Srivastav
+ */
+@ConfigurationProperties(prefix = "saga.deadline")
+public class SagaDeadlineProperties {
+
+    /**
+     * Budget of a saga whose request does not ask for one.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Upper bound on the budget a request may ask for.
+     */
+    private Duration maxTimeout = Duration.ofSeconds(30);
+
+    /**
+     * A step is skipped, and the saga compensated, when less than this is left.
+     */
+    private Duration minStepBudget = Duration.ofMillis(10);
+
+    /**
+     * @param requestedTimeoutMs Budget asked for by the client, or {@code null}
+     * @return The saga's deadline, starting now
+     */
+    public Deadline deadlineFor(Long requestedTimeoutMs) {
+        if (requestedTimeoutMs == null || requestedTimeoutMs <= 0) {
+            return Deadline.after(defaultTimeout);
+        }
+        Duration requested = Duration.ofMillis(requestedTimeoutMs);
+        return Deadline.after(requested.compareTo(maxTimeout) > 0 ? maxTimeout : requested);
+    }
+
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public void setDefaultTimeout(Duration defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    public Duration getMaxTimeout() {
+        return maxTimeout;
+    }
+
+    public void setMaxTimeout(Duration maxTimeout) {
+        this.maxTimeout = maxTimeout;
+    }
+
+    public Duration getMinStepBudget() {
+        return minStepBudget;
+    }
+
+    public void setMinStepBudget(Duration minStepBudget) {
+        this.minStepBudget = minStepBudget;
+    }
+}
@@ -0,0 +1,57 @@
+package com.shivamsrivastav.distributedpatterns.saga.orchestration.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A single payment within a batch authorization.
+ *
+ * @author Shivam Srivastav
+ */
+public class PaymentAuthorization {
+
+    private String idempotencyKey;
+    private String customerId;
+    private BigDecimal amount;
+
+    public PaymentAuthorization() {
+    }
+
+    public PaymentAuthorization(String idempotencyKey, String customerId, BigDecimal amount) {
+        this.idempotencyKey = idempotencyKey;
+        this.customerId = customerId;
+        this.amount = amount;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentAuthorization{" +
+                "idempotencyKey='" + idempotencyKey + '\'' +
+                ", customerId='" + customerId + '\'' +
+                ", amount=" + amount +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.shivamsrivastav.distributedpatterns.saga.orchestration.dto;
+
+/**
+ * Outcome of one item of a batch authorization.
+ *
+ * @author Shivam Srivastav
+ */
+public class PaymentAuthorizationResult {
+
+    private boolean approved;
+    private String failureReason;
+
+    public PaymentAuthorizationResult() {
+    }
+
+    public PaymentAuthorizationResult(boolean approved, String failureReason) {
+        this.approved = approved;
+        this.failureReason = failureReason;
+    }
+
+    public static PaymentAuthorizationResult approved() {
+        return new PaymentAuthorizationResult(true, null);
+    }
+
+    public static PaymentAuthorizationResult rejected(String failureReason) {
+        return new PaymentAuthorizationResult(false, failureReason);
+    }
+
+    public boolean isApproved() {
+        return approved;
+    }
+
+    public void setApproved(boolean approved) {
+        this.approved = approved;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentAuthorizationResult{" +
+                "approved=" + approved +
+                ", failureReason='" + failureReason + '\'' +
+                '}';
+    }
+}
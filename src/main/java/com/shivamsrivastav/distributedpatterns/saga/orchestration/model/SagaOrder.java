@@ -1,16 +1,27 @@
 package com.shivamsrivastav.distributedpatterns.saga.orchestration.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
  * Entity representing an Order in the Saga Orchestration example.
+ * <p>
+ * Indexed for the lookups of {@link SagaOrderRepository}: by status, by
+ * customer, and by creation time, each newest first.
+ * </p>
  *
  * @author Shivam Srivastav
  */
 @Entity
-@Table(name = "saga_orders")
+@Table(name = "saga_orders", indexes = {
+        @Index(name = "idx_saga_orders_status_created_at", columnList = "status, createdAt"),
+        @Index(name = "idx_saga_orders_customer_created_at", columnList = "customerId, createdAt"),
+        @Index(name = "idx_saga_orders_created_at", columnList = "createdAt")
+})
 public class SagaOrder {
 
     @Id
@@ -27,6 +38,16 @@ public class SagaOrder {
 
     private String failureReason;
 
+    /**
+     * W3C {@code traceparent} of the request that created the order.
+     */
+    @Column(length = 55)
+    private String traceParent;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
     public SagaOrder() {
     }
 
@@ -97,6 +118,22 @@ public class SagaOrder {
         this.failureReason = failureReason;
     }
 
+    public String getTraceParent() {
+        return traceParent;
+    }
+
+    public void setTraceParent(String traceParent) {
+        this.traceParent = traceParent;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -122,6 +159,8 @@ public class SagaOrder {
                 ", price=" + price +
                 ", status=" + status +
                 ", failureReason='" + failureReason + '\'' +
+                ", traceParent='" + traceParent + '\'' +
+                ", createdAt=" + createdAt +
                 '}';
     }
 }
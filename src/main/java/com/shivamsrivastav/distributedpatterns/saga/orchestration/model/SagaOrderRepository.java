@@ -1,13 +1,69 @@
 package com.shivamsrivastav.distributedpatterns.saga.orchestration.model;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Repository for managing SagaOrder entities.
+ * <p>
+ * The lookups below are each served by an index on {@code saga_orders}
+ * (see {@link SagaOrder}), newest first and limited by the page size.
+ * </p>
  *
  * @author Shivam Srivastav
  */
 @Repository
 public interface SagaOrderRepository extends JpaRepository<SagaOrder, Long> {
+
+    /**
+     * @param pageable Page size
+     * @return The newest orders
+     */
+    List<SagaOrder> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    /**
+     * @param status   Order status, e.g. the orders stuck in PAYMENT_PROCESSED
+     * @param pageable Page size
+     * @return Orders in that status, newest first
+     */
+    List<SagaOrder> findByStatusOrderByCreatedAtDesc(OrderStatus status, Pageable pageable);
+
+    /**
+     * @param customerId Customer
+     * @param pageable   Page size
+     * @return The customer's orders, newest first
+     */
+    List<SagaOrder> findByCustomerIdOrderByCreatedAtDesc(String customerId, Pageable pageable);
+
+    /**
+     * @param customerId Customer
+     * @param status     Order status
+     * @param pageable   Page size
+     * @return The customer's orders in that status, newest first
+     */
+    List<SagaOrder> findByCustomerIdAndStatusOrderByCreatedAtDesc(String customerId, OrderStatus status,
+            Pageable pageable);
+
+    /**
+     * @param from     Inclusive lower bound of the creation time
+     * @param to       Exclusive upper bound of the creation time
+     * @param pageable Page size
+     * @return Orders created in the range, newest first
+     */
+    @Query("select o from SagaOrder o where o.createdAt >= :from and o.createdAt < :to order by o.createdAt desc")
+    List<SagaOrder> findCreatedBetween(LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    /**
+     * Number of orders per status, in one pass; used to seed the in-memory
+     * counters at startup.
+     *
+     * @return Pairs of {@link OrderStatus} and count
+     */
+    @Query("select o.status, count(o) from SagaOrder o where o.status is not null group by o.status")
+    List<Object[]> countGroupedByStatus();
 }
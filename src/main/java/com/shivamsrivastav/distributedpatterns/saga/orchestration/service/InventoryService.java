@@ -2,14 +2,22 @@ package com.shivamsrivastav.distributedpatterns.saga.orchestration.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.shivamsrivastav.distributedpatterns.resilience.fault.FaultInjector;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline.Deadline;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Mock Inventory Service to demonstrate Saga steps.
  * <p>
  * In a real microservices architecture, this would be a remote service called
  * via REST/gRPC.
  * Use simple logic here: if productId is "OUT_OF_STOCK", throw exception.
+ * Latency and transport failures come from the {@link FaultInjector}
+ * (dependency {@value #FAULT_DEPENDENCY}).
  * </p>
  *
  * @author Shivam Srivastav
@@ -19,16 +27,50 @@ public class InventoryService {
 
     private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
 
+    public static final String FAULT_DEPENDENCY = "inventory";
+
+    private static final int MAX_TRACKED_RESERVATIONS = 10_000;
+
+    private final FaultInjector faultInjector;
+
+    /**
+     * Reservations by idempotency key, so a retried attempt does not
+     * reserve twice. A released reservation stays as a tombstone so an attempt
+     * still in flight at compensation time cannot reserve again.
+     */
+    private final Map<String, Reservation> reservations = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Reservation> eldest) {
+                    return size() > MAX_TRACKED_RESERVATIONS;
+                }
+            });
+
+    public InventoryService(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
     /**
      * Reserves inventory for a product.
      *
-     * @param productId The product ID
-     * @param quantity  The quantity to reserve
+     * Idempotent per {@code idempotencyKey}, which makes it safe to retry.
+     * The remote call waits no longer than the saga's remaining budget.
+     *
+     * @param idempotencyKey Key of the reservation (one per order)
+     * @param productId      The product ID
+     * @param quantity       The quantity to reserve
+     * @param deadline       Deadline of the saga
      * @return true if successful
      * @throws RuntimeException if product is out of stock (simulated)
      */
-    public boolean reserveInventory(String productId, Integer quantity) {
+    public boolean reserveInventory(String idempotencyKey, String productId, Integer quantity, Deadline deadline) {
         log.info("Attempting to reserve inventory for Product: {}, Quantity: {}", productId, quantity);
+        deadline.check("inventory");
+        faultInjector.inject(FAULT_DEPENDENCY, deadline.remaining());
+
+        if (isReserved(idempotencyKey, reservations.get(idempotencyKey))) {
+            return true;
+        }
 
         // Simulation of a business rule or failure
         if ("OUT_OF_STOCK".equalsIgnoreCase(productId)) {
@@ -36,18 +78,39 @@ public class InventoryService {
             throw new RuntimeException("Product is out of stock");
         }
 
+        if (isReserved(idempotencyKey, reservations.putIfAbsent(idempotencyKey, Reservation.RESERVED))) {
+            return true;
+        }
         log.info("Inventory reserved successfully for Product: {}", productId);
         return true;
     }
 
+    private static boolean isReserved(String idempotencyKey, Reservation reservation) {
+        if (reservation == Reservation.RELEASED) {
+            log.warn("Reservation {} was already released; not reserving again", idempotencyKey);
+            throw new IllegalStateException("Reservation " + idempotencyKey + " was released");
+        }
+        if (reservation == Reservation.RESERVED) {
+            log.info("Inventory already reserved for key {}", idempotencyKey);
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Compensating Transaction: Releases previously reserved inventory.
      *
-     * @param productId The product ID
-     * @param quantity  The quantity to release
+     * @param idempotencyKey Key the reservation was made with
+     * @param productId      The product ID
+     * @param quantity       The quantity to release
      */
-    public void releaseInventory(String productId, Integer quantity) {
+    public void releaseInventory(String idempotencyKey, String productId, Integer quantity) {
         log.info("Compensating Transaction: Releasing inventory for Product: {}, Quantity: {}", productId, quantity);
+        reservations.put(idempotencyKey, Reservation.RELEASED);
         // Logic to restore inventory count would go here
     }
+
+    private enum Reservation {
+        RESERVED, RELEASED
+    }
 }
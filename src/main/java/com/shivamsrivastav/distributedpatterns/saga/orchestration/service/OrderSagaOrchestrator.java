@@ -1,14 +1,23 @@
 package com.shivamsrivastav.distributedpatterns.saga.orchestration.service;
 
+import com.shivamsrivastav.distributedpatterns.common.datasource.ShardContext;
+import com.shivamsrivastav.distributedpatterns.common.tracing.Tracer;
 import com.shivamsrivastav.distributedpatterns.outbox.service.OutboxService;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline.Deadline;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline.DeadlineExceededException;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline.SagaDeadlineProperties;
 import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.OrderStatus;
 import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.SagaOrder;
 import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.SagaOrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.function.Supplier;
+
 /**
  * Saga Orchestrator Service.
  * <p>
@@ -24,91 +33,183 @@ import org.springframework.transaction.annotation.Transactional;
  * reverse order
  * to return the system to a consistent state.
  * </p>
+ * <p>
+ * Every saga runs against a {@link Deadline}. Each step gets the remaining
+ * budget and is cut short when it runs out; a step with less than
+ * {@code saga.deadline.min-step-budget} left is not started at all, and the
+ * saga is compensated straight away. Both cases are counted in
+ * {@code saga.deadline.exceeded}, tagged by step and outcome (skipped,
+ * cancelled), so that an overloaded period fails fast instead of piling up.
+ * </p>
  *
  * @author Shivam Srivastav
  */
 @Service
+@EnableConfigurationProperties(SagaDeadlineProperties.class)
 public class OrderSagaOrchestrator {
 
     private static final Logger log = LoggerFactory.getLogger(OrderSagaOrchestrator.class);
 
+    private static final String INVENTORY_STEP = "inventory";
+    private static final String PAYMENT_STEP = "payment";
+
     private final SagaOrderRepository orderRepository;
     private final InventoryService inventoryService;
     private final PaymentService paymentService;
+    private final PaymentAuthorizationCollapser paymentCollapser;
     private final OutboxService outboxService;
+    private final Tracer tracer;
+    private final SagaDeadlineProperties deadlineProperties;
+    private final MeterRegistry meterRegistry;
+    private final OrderStatusCounters statusCounters;
 
     public OrderSagaOrchestrator(SagaOrderRepository orderRepository, InventoryService inventoryService,
-            PaymentService paymentService, OutboxService outboxService) {
+            PaymentService paymentService, PaymentAuthorizationCollapser paymentCollapser,
+            OutboxService outboxService, Tracer tracer, SagaDeadlineProperties deadlineProperties,
+            MeterRegistry meterRegistry, OrderStatusCounters statusCounters) {
         this.orderRepository = orderRepository;
         this.inventoryService = inventoryService;
         this.paymentService = paymentService;
+        this.paymentCollapser = paymentCollapser;
         this.outboxService = outboxService;
+        this.tracer = tracer;
+        this.deadlineProperties = deadlineProperties;
+        this.meterRegistry = meterRegistry;
+        this.statusCounters = statusCounters;
     }
 
     /**
-     * Entry point to start the Create Order Saga.
+     * Entry point to start the Create Order Saga, with the default time budget.
      *
      * @param order The order request
      * @return The updated order with final status
      */
     @Transactional
     public SagaOrder createOrder(SagaOrder order) {
-        // Step 1: Initialize Order
+        return createOrder(order, deadlineProperties.deadlineFor(null));
+    }
+
+    /**
+     * Entry point to start the Create Order Saga.
+     * Each step runs in its own trace span; the trace context is stored on
+     * the order and its outbox event.
+     *
+     * @param order    The order request
+     * @param deadline When the saga must be finished
+     * @return The updated order with final status
+     */
+    @Transactional
+    public SagaOrder createOrder(SagaOrder order, Deadline deadline) {
+        // Step 1: Initialize Order (a status sent by the client is not a transition)
         order.setStatus(OrderStatus.CREATED);
-        SagaOrder savedOrder = orderRepository.save(order);
+        statusCounters.transition(null, OrderStatus.CREATED);
+        order.setTraceParent(tracer.currentTraceParent());
+        SagaOrder savedOrder = tracer.inSpan("saga.order-insert", () -> orderRepository.save(order));
         log.info("Saga started: Order {} created with status CREATED", savedOrder.getId());
 
         try {
             // Step 2: Reserve Inventory
-            inventoryService.reserveInventory(savedOrder.getProductId(), savedOrder.getQuantity());
-            savedOrder.setStatus(OrderStatus.INVENTORY_RESERVED);
+            tracer.inSpan("saga.inventory", () -> step(INVENTORY_STEP, deadline,
+                    () -> inventoryService.reserveInventory(idempotencyKey(savedOrder), savedOrder.getProductId(),
+                            savedOrder.getQuantity(), deadline)));
+            moveTo(savedOrder, OrderStatus.INVENTORY_RESERVED);
             orderRepository.save(savedOrder);
             log.info("Order {}: Inventory reserved.", savedOrder.getId());
 
-            // Step 3: Process Payment
-            paymentService.processPayment(savedOrder.getCustomerId(), savedOrder.getPrice());
-            savedOrder.setStatus(OrderStatus.PAYMENT_PROCESSED);
+            // Step 3: Process Payment (batched with concurrent sagas when enabled)
+            tracer.inSpan("saga.payment", () -> step(PAYMENT_STEP, deadline,
+                    () -> paymentCollapser.processPayment(idempotencyKey(savedOrder), savedOrder.getCustomerId(),
+                            savedOrder.getPrice(), deadline)));
+            moveTo(savedOrder, OrderStatus.PAYMENT_PROCESSED);
             orderRepository.save(savedOrder);
             log.info("Order {}: Payment processed.", savedOrder.getId());
 
             // Step 4: Complete Saga
-            savedOrder.setStatus(OrderStatus.COMPLETED);
+            moveTo(savedOrder, OrderStatus.COMPLETED);
             orderRepository.save(savedOrder);
             log.info("Saga completed successfully for Order {}", savedOrder.getId());
 
             // --- OUTBOX PATTERN INTEGRATION ---
             // Save an event to the outbox table in the SAME transaction
-            outboxService.saveEvent("ORDER", savedOrder.getId().toString(), "ORDER_COMPLETED", savedOrder);
+            tracer.inSpan("saga.outbox-insert", () -> outboxService.saveEvent("ORDER", savedOrder.getId().toString(),
+                    "ORDER_COMPLETED", savedOrder));
 
             return savedOrder;
 
         } catch (Exception e) {
             log.error("Saga failed for Order {}. Initiating Compensation. Reason: {}", savedOrder.getId(),
                     e.getMessage());
+            // A payment cut short by the deadline may still have gone through
+            boolean paymentUncertain = e instanceof DeadlineExceededException exceeded
+                    && PAYMENT_STEP.equals(exceeded.getStep());
             // Trigger Compensation Logic
-            return handleSagaFailure(savedOrder, e.getMessage());
+            return tracer.inSpan("saga.compensation",
+                    () -> handleSagaFailure(savedOrder, e.getMessage(), paymentUncertain));
         }
     }
 
+    /**
+     * Runs a step within the saga's deadline.
+     *
+     * @throws DeadlineExceededException if the step is skipped or the deadline
+     *                                   passes while it runs
+     */
+    private <T> T step(String step, Deadline deadline, Supplier<T> call) {
+        if (deadline.remaining().compareTo(deadlineProperties.getMinStepBudget()) < 0) {
+            countDeadlineExceeded(step, "skipped");
+            throw new DeadlineExceededException(step, "Saga deadline too close to start " + step);
+        }
+        try {
+            return call.get();
+        } catch (DeadlineExceededException e) {
+            countDeadlineExceeded(step, "cancelled");
+            throw e;
+        } catch (RuntimeException e) {
+            if (!deadline.isExpired()) {
+                throw e;
+            }
+            countDeadlineExceeded(step, "cancelled");
+            throw new DeadlineExceededException(step, "Saga deadline exceeded during " + step, e);
+        }
+    }
+
+    /**
+     * Sets the order's status and moves it between the status counters.
+     */
+    private void moveTo(SagaOrder order, OrderStatus status) {
+        statusCounters.transition(order.getStatus(), status);
+        order.setStatus(status);
+    }
+
+    private void countDeadlineExceeded(String step, String outcome) {
+        meterRegistry.counter("saga.deadline.exceeded", "step", step, "outcome", outcome).increment();
+    }
+
     /**
      * Handles failures by executing compensating transactions based on the current
      * state.
      *
-     * @param order         The order that failed
-     * @param failureReason Error message
+     * @param order            The order that failed
+     * @param failureReason    Error message
+     * @param paymentUncertain Whether the payment step was cut short without
+     *                         an answer, so it is refunded as well
      * @return The order with CANCELLED status
      */
-    private SagaOrder handleSagaFailure(SagaOrder order, String failureReason) {
+    private SagaOrder handleSagaFailure(SagaOrder order, String failureReason, boolean paymentUncertain) {
         log.warn("Executing compensating transactions for Order {} currently in state {}", order.getId(),
                 order.getStatus());
 
         // Reverse order of operations based on current status
         switch (order.getStatus()) {
             case PAYMENT_PROCESSED:
-                paymentService.refundPayment(order.getCustomerId(), order.getPrice());
+                paymentService.refundPayment(idempotencyKey(order), order.getCustomerId(), order.getPrice());
                 // Fallthrough to reverse inventory as well
             case INVENTORY_RESERVED:
-                inventoryService.releaseInventory(order.getProductId(), order.getQuantity());
+                if (paymentUncertain) {
+                    // Idempotent: a refund of a payment that never happened is a no-op
+                    paymentService.refundPayment(idempotencyKey(order), order.getCustomerId(), order.getPrice());
+                }
+                inventoryService.releaseInventory(idempotencyKey(order), order.getProductId(), order.getQuantity());
                 break;
             default:
                 // If failed at CREATED, no external calls need reversing
@@ -116,15 +217,26 @@ public class OrderSagaOrchestrator {
         }
 
         // Finalize state as FAILED/CANCELLED
-        order.setStatus(OrderStatus.CANCELLED);
+        moveTo(order, OrderStatus.CANCELLED);
         order.setFailureReason(failureReason);
         SagaOrder failedOrder = orderRepository.save(order);
 
         // --- OUTBOX PATTERN INTEGRATION ---
         // Save failure event
-        outboxService.saveEvent("ORDER", failedOrder.getId().toString(), "ORDER_CANCELLED", failedOrder);
+        tracer.inSpan("saga.outbox-insert", () -> outboxService.saveEvent("ORDER", failedOrder.getId().toString(),
+                "ORDER_CANCELLED", failedOrder));
 
         log.info("Compensation completed. Order {} marked as CANCELLED.", failedOrder.getId());
         return failedOrder;
     }
+
+    /**
+     * Key that makes the saga's remote calls idempotent, so they can be
+     * retried: one reservation and one charge per order. Order ids are only
+     * unique within a shard, so a sharded order's key names its shard.
+     */
+    private static String idempotencyKey(SagaOrder order) {
+        Integer shard = ShardContext.current();
+        return shard == null ? "order-" + order.getId() : "order-" + shard + "-" + order.getId();
+    }
 }
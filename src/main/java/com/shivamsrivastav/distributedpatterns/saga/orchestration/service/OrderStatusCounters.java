@@ -0,0 +1,146 @@
+package com.shivamsrivastav.distributedpatterns.saga.orchestration.service;
+
+import com.shivamsrivastav.distributedpatterns.common.datasource.ShardRouter;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.OrderStatus;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.model.SagaOrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live number of saga orders per {@link OrderStatus}, so dashboards and the
+ * {@code /api/saga/orders/status-counts} endpoint don't count the table.
+ * <p>
+ * The counts are read from the database (every shard) when the context
+ * starts, in a lifecycle phase before the web server and the Kafka listener
+ * containers (and before {@code @Scheduled} tasks, which begin once the
+ * context is refreshed), so no transition can happen while they are read.
+ * From then on the orchestrator moves them on each status transition. The
+ * fast-startup archive's training run stops before lifecycle beans start, so
+ * it needs no database. A transition
+ * inside a transaction is applied when it commits, so the counts follow what
+ * is stored: a saga that commits as COMPLETED adds one COMPLETED order and
+ * nothing else. Published as the gauge {@code saga.orders}, tagged by status.
+ * </p>
+ * <p>
+ * Each instance only sees its own transitions; with several instances writing
+ * to the same database the counts are exact as of each instance's start plus
+ * its own orders.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+public class OrderStatusCounters implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusCounters.class);
+
+    private final SagaOrderRepository orderRepository;
+    private final ShardRouter shardRouter;
+    private final Map<OrderStatus, AtomicLong> counts = new EnumMap<>(OrderStatus.class);
+    private volatile boolean running;
+
+    public OrderStatusCounters(SagaOrderRepository orderRepository, ShardRouter shardRouter,
+            MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.shardRouter = shardRouter;
+        for (OrderStatus status : OrderStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder("saga.orders", count, AtomicLong::get)
+                    .tag("status", status.name())
+                    .description("Saga orders currently in the status")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void start() {
+        seed();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Ahead of the web server and the Kafka listener containers, whose phases
+     * are close to {@link Integer#MAX_VALUE}.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * Sets the counts to what the database holds.
+     */
+    private void seed() {
+        Map<OrderStatus, Long> totals = new EnumMap<>(OrderStatus.class);
+        List<List<Object[]>> perShard = shardRouter.onEveryShardInBackground(
+                shard -> orderRepository.countGroupedByStatus());
+        for (List<Object[]> shardCounts : perShard) {
+            for (Object[] row : shardCounts) {
+                totals.merge((OrderStatus) row[0], (Long) row[1], Long::sum);
+            }
+        }
+        counts.forEach((status, count) -> count.set(totals.getOrDefault(status, 0L)));
+        log.info("Saga order status counts seeded: {}", totals);
+    }
+
+    /**
+     * Records that an order moved between statuses; applied after the current
+     * transaction commits, or at once outside a transaction.
+     *
+     * @param from Previous status, null for a new order
+     * @param to   New status
+     */
+    public void transition(OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(from, to);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(from, to);
+            }
+        });
+    }
+
+    private void apply(OrderStatus from, OrderStatus to) {
+        if (from != null) {
+            counts.get(from).decrementAndGet();
+        }
+        counts.get(to).incrementAndGet();
+    }
+
+    /**
+     * @return Orders per status, every status included
+     */
+    public Map<OrderStatus, Long> snapshot() {
+        Map<OrderStatus, Long> snapshot = new EnumMap<>(OrderStatus.class);
+        counts.forEach((status, count) -> snapshot.put(status, count.get()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,258 @@
+package com.shivamsrivastav.distributedpatterns.saga.orchestration.service;
+
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline.Deadline;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline.DeadlineExceededException;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.dto.PaymentAuthorization;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.dto.PaymentAuthorizationResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request collapser for payment authorizations.
+ * <p>
+ * Concurrent sagas calling {@link #processPayment} are gathered for up to
+ * {@code saga.payment-batching.window-ms}, or until
+ * {@code saga.payment-batching.max-batch-size} payments are waiting, and sent
+ * to the provider as one {@link PaymentService#authorizeBatch} call. Each
+ * caller blocks until its own item's result is in: an approval returns, a
+ * rejection is thrown back to that caller only, and a failure of the batch
+ * call (including an open circuit) is thrown to every caller in the batch.
+ * </p>
+ * <p>
+ * A caller waits no longer than its saga's deadline; payments whose deadline
+ * has passed by the time the batch goes out are left out of it, and the batch
+ * call itself is given the longest deadline left in the batch. A caller that
+ * gave up is taken out of any batch not yet sent; the saga then refunds it,
+ * and since {@link PaymentService} keeps refunded keys, a batch already in
+ * flight cannot charge it after the refund either.
+ * </p>
+ * <p>
+ * Batches are sent by a small pool of dispatchers
+ * ({@code saga.payment-batching.dispatchers}), never by the window timer, so
+ * a slow provider call does not hold back the next window. When every
+ * dispatcher is busy and {@value #MAX_QUEUED_BATCHES} batches are queued, the
+ * new batch fails at once.
+ * </p>
+ * When disabled, calls go straight to {@link PaymentService#processPayment}.
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+public class PaymentAuthorizationCollapser {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentAuthorizationCollapser.class);
+    private static final String STEP = "payment";
+    private static final int MAX_QUEUED_BATCHES = 100;
+
+    private final PaymentService paymentService;
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+    private final ScheduledExecutorService windowTimer;
+    private final ThreadPoolExecutor dispatchers;
+
+    private final Object lock = new Object();
+    private List<PendingPayment> batch = new ArrayList<>();
+    private ScheduledFuture<?> windowFlush;
+
+    public PaymentAuthorizationCollapser(PaymentService paymentService, MeterRegistry meterRegistry,
+            @Value("${saga.payment-batching.enabled:false}") boolean enabled,
+            @Value("${saga.payment-batching.window-ms:10}") long windowMs,
+            @Value("${saga.payment-batching.max-batch-size:50}") int maxBatchSize,
+            @Value("${saga.payment-batching.dispatchers:4}") int dispatcherCount) {
+        this.paymentService = paymentService;
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder("saga.payment.batch.size")
+                .description("Payments per batch authorization call")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.windowTimer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "payment-collapser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadId = new AtomicInteger();
+        this.dispatchers = new ThreadPoolExecutor(dispatcherCount, dispatcherCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_BATCHES), task -> {
+                    Thread thread = new Thread(task, "payment-dispatch-" + threadId.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Authorizes a payment, possibly batched with concurrent ones.
+     *
+     * @param idempotencyKey Key of the payment (one per order)
+     * @param customerId     The customer ID
+     * @param amount         The total amount to charge
+     * @param deadline       Deadline of the saga
+     * @return true if successful
+     * @throws RuntimeException if the payment is rejected or the batch call fails
+     * @throws DeadlineExceededException if no result arrived before the deadline
+     */
+    public boolean processPayment(String idempotencyKey, String customerId, BigDecimal amount, Deadline deadline) {
+        if (!enabled) {
+            return paymentService.processPayment(idempotencyKey, customerId, amount, deadline);
+        }
+
+        deadline.check(STEP);
+        PendingPayment payment = new PendingPayment(new PaymentAuthorization(idempotencyKey, customerId, amount),
+                deadline);
+        List<PendingPayment> full = null;
+        synchronized (lock) {
+            batch.add(payment);
+            if (batch.size() >= maxBatchSize) {
+                full = detachBatch();
+            } else if (batch.size() == 1) {
+                windowFlush = windowTimer.schedule(this::flushWindow, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            // Send a full batch now instead of waiting for the timer
+            submit(full);
+        }
+
+        try {
+            return payment.result.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            DeadlineExceededException exceeded = new DeadlineExceededException(STEP,
+                    "No payment authorization within the saga deadline");
+            // Leaves it out of the batch if that has not gone out yet
+            payment.result.completeExceptionally(exceeded);
+            throw exceeded;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for payment authorization", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void flushWindow() {
+        List<PendingPayment> window;
+        synchronized (lock) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            window = detachBatch();
+        }
+        submit(window);
+    }
+
+    private void submit(List<PendingPayment> pending) {
+        try {
+            dispatchers.execute(() -> dispatch(pending));
+        } catch (RejectedExecutionException e) {
+            log.error("Payment batch of {} dropped: all dispatchers busy", pending.size());
+            RuntimeException busy = new RuntimeException("Payment provider backlog full, try again later", e);
+            pending.forEach(payment -> payment.result.completeExceptionally(busy));
+        }
+    }
+
+    /**
+     * Must hold {@link #lock}.
+     */
+    private List<PendingPayment> detachBatch() {
+        List<PendingPayment> detached = batch;
+        batch = new ArrayList<>();
+        if (windowFlush != null) {
+            windowFlush.cancel(false);
+            windowFlush = null;
+        }
+        return detached;
+    }
+
+    private void dispatch(List<PendingPayment> pending) {
+        List<PendingPayment> payments = new ArrayList<>(pending.size());
+        Duration timeout = Duration.ZERO;
+        for (PendingPayment payment : pending) {
+            if (payment.result.isDone()) {
+                // The caller gave up and is compensating
+                continue;
+            }
+            Duration remaining = payment.deadline.remaining();
+            if (payment.deadline.isExpired()) {
+                payment.result.completeExceptionally(
+                        new DeadlineExceededException(STEP, "Saga deadline passed before the batch was sent"));
+            } else {
+                payments.add(payment);
+                if (remaining.compareTo(timeout) > 0) {
+                    timeout = remaining;
+                }
+            }
+        }
+        if (payments.isEmpty()) {
+            return;
+        }
+        batchSizes.record(payments.size());
+        List<PaymentAuthorization> authorizations = new ArrayList<>(payments.size());
+        for (PendingPayment payment : payments) {
+            authorizations.add(payment.authorization);
+        }
+
+        List<PaymentAuthorizationResult> results;
+        try {
+            results = paymentService.authorizeBatch(authorizations, timeout);
+        } catch (RuntimeException e) {
+            log.error("Batch authorization of {} payments failed: {}", payments.size(), e.getMessage());
+            payments.forEach(payment -> payment.result.completeExceptionally(e));
+            return;
+        }
+
+        for (int i = 0; i < payments.size(); i++) {
+            PaymentAuthorizationResult result = results.get(i);
+            if (result.isApproved()) {
+                payments.get(i).result.complete(true);
+            } else {
+                payments.get(i).result.completeExceptionally(new RuntimeException(result.getFailureReason()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flushWindow();
+        windowTimer.shutdownNow();
+        dispatchers.shutdown();
+        dispatchers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static class PendingPayment {
+        private final PaymentAuthorization authorization;
+        private final Deadline deadline;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        PendingPayment(PaymentAuthorization authorization, Deadline deadline) {
+            this.authorization = authorization;
+            this.deadline = deadline;
+        }
+    }
+}
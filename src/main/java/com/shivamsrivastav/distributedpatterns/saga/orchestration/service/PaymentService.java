@@ -2,9 +2,20 @@ package com.shivamsrivastav.distributedpatterns.saga.orchestration.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.shivamsrivastav.distributedpatterns.resilience.fault.FaultInjector;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.deadline.Deadline;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.dto.PaymentAuthorization;
+import com.shivamsrivastav.distributedpatterns.saga.orchestration.dto.PaymentAuthorizationResult;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Mock Payment Service to demonstrate Saga phases.
@@ -12,6 +23,9 @@ import java.math.BigDecimal;
  * Simulates payment processing. Fails if the price is substantially high (e.g.,
  * > 1000)
  * to demonstrate compensation triggering in the Orchestrator.
+ * Latency and transport failures come from the {@link FaultInjector}
+ * (dependency {@value #FAULT_DEPENDENCY}), applied once per provider call —
+ * so once per batch for {@link #authorizeBatch}.
  * </p>
  *
  * @author Shivam Srivastav
@@ -21,16 +35,54 @@ public class PaymentService {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
 
+    public static final String FAULT_DEPENDENCY = "payment";
+
+    private static final int MAX_TRACKED_PAYMENTS = 10_000;
+
+    private final FaultInjector faultInjector;
+
+    /**
+     * Payments by idempotency key, so a retried attempt does not
+     * charge twice. A refunded payment stays as a tombstone so an attempt
+     * still in flight at compensation time cannot charge again.
+     */
+    private final Map<String, Payment> payments = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Payment> eldest) {
+                    return size() > MAX_TRACKED_PAYMENTS;
+                }
+            });
+
+    public PaymentService(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
     /**
      * Processes payment for an order.
      *
-     * @param customerId The customer ID
-     * @param amount     The total amount to charge
+     * Idempotent per {@code idempotencyKey}, which makes it safe to retry.
+     * The remote call waits no longer than the saga's remaining budget.
+     *
+     * @param idempotencyKey Key of the payment (one per order)
+     * @param customerId     The customer ID
+     * @param amount         The total amount to charge
+     * @param deadline       Deadline of the saga
      * @return true if successful
      * @throws RuntimeException if payment is rejected (simulated)
      */
-    public boolean processPayment(String customerId, BigDecimal amount) {
+    public boolean processPayment(String idempotencyKey, String customerId, BigDecimal amount, Deadline deadline) {
         log.info("Attempting to process payment for Customer: {}, Amount: {}", customerId, amount);
+        deadline.check("payment");
+        faultInjector.inject(FAULT_DEPENDENCY, deadline.remaining());
+        return charge(idempotencyKey, customerId, amount);
+    }
+
+    private boolean charge(String idempotencyKey, String customerId, BigDecimal amount) {
+
+        if (isCharged(idempotencyKey, payments.get(idempotencyKey))) {
+            return true;
+        }
 
         // Simulation: Fails if amount is greater than 1000 (e.g., insufficient funds)
         if (amount.compareTo(new BigDecimal("1000")) > 0) {
@@ -38,18 +90,68 @@ public class PaymentService {
             throw new RuntimeException("Insufficient funds or limit exceeded");
         }
 
+        if (isCharged(idempotencyKey, payments.putIfAbsent(idempotencyKey, Payment.CHARGED))) {
+            return true;
+        }
         log.info("Payment processed successfully for Customer: {}", customerId);
         return true;
     }
 
+    private static boolean isCharged(String idempotencyKey, Payment payment) {
+        if (payment == Payment.REFUNDED) {
+            log.warn("Payment {} was already refunded; not charging again", idempotencyKey);
+            throw new IllegalStateException("Payment " + idempotencyKey + " was refunded");
+        }
+        if (payment == Payment.CHARGED) {
+            log.info("Payment already processed for key {}", idempotencyKey);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Authorizes a batch of payments in one provider call.
+     * <p>
+     * Item-level rejections (e.g. insufficient funds) are returned as results
+     * rather than thrown, so only a failure of the batch call itself is
+     * recorded by the circuit breaker — once per batch, not once per item.
+     * </p>
+     *
+     * @param authorizations Payments to authorize
+     * @param timeout        Longest the provider call may take
+     * @return One result per authorization, in the same order
+     */
+    @CircuitBreaker(name = "sagaPaymentProvider")
+    public List<PaymentAuthorizationResult> authorizeBatch(List<PaymentAuthorization> authorizations,
+            Duration timeout) {
+        log.info("Authorizing batch of {} payments", authorizations.size());
+        faultInjector.inject(FAULT_DEPENDENCY, timeout);
+        List<PaymentAuthorizationResult> results = new ArrayList<>(authorizations.size());
+        for (PaymentAuthorization authorization : authorizations) {
+            try {
+                charge(authorization.getIdempotencyKey(), authorization.getCustomerId(), authorization.getAmount());
+                results.add(PaymentAuthorizationResult.approved());
+            } catch (RuntimeException e) {
+                results.add(PaymentAuthorizationResult.rejected(e.getMessage()));
+            }
+        }
+        return results;
+    }
+
     /**
      * Compensating Transaction: Refunds a previously processed payment.
      *
-     * @param customerId The customer ID
-     * @param amount     The amount to refund
+     * @param idempotencyKey Key the payment was made with
+     * @param customerId     The customer ID
+     * @param amount         The amount to refund
      */
-    public void refundPayment(String customerId, BigDecimal amount) {
+    public void refundPayment(String idempotencyKey, String customerId, BigDecimal amount) {
         log.info("Compensating Transaction: Refunding payment for Customer: {}, Amount: {}", customerId, amount);
+        payments.put(idempotencyKey, Payment.REFUNDED);
         // Logic to process refund would go here
     }
+
+    private enum Payment {
+        CHARGED, REFUNDED
+    }
 }
@@ -0,0 +1,50 @@
+package com.shivamsrivastav.distributedpatterns.saga.orchestration.service;
+
+import com.shivamsrivastav.distributedpatterns.common.datasource.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives saga orders created before {@code saga_orders.created_at} existed the
+ * creation time 1970-01-01 00:00, on every shard.
+ * <p>
+ * {@code ddl-auto=update} adds the column as nullable and leaves old rows
+ * NULL, and PostgreSQL sorts NULLs first in a descending order, so those rows
+ * would head every newest-first listing. A fixed old time puts them last
+ * while the listings keep reading the {@code created_at} indexes in order.
+ * Runs once the application is ready, so building the fast-startup archive
+ * needs no database.
+ * </p>
+ *
+ * @author Shivam Srivastav
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SagaOrderCreatedAtBackfill implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(SagaOrderCreatedAtBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    public SagaOrderCreatedAtBackfill(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        int backfilled = shardRouter.onEveryShardInBackground(shard -> jdbcTemplate.update(
+                "UPDATE saga_orders SET created_at = TIMESTAMP '1970-01-01 00:00:00' WHERE created_at IS NULL"))
+                .stream().mapToInt(Integer::intValue).sum();
+        if (backfilled > 0) {
+            log.info("Backfilled creation time of {} saga orders", backfilled);
+        }
+    }
+}
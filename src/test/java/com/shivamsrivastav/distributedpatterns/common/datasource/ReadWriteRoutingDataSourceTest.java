@@ -0,0 +1,96 @@
+package com.shivamsrivastav.distributedpatterns.common.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = database("primary");
+    private final DataSource replica = database("replica");
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private ReadWriteRoutingDataSource routing(String lagQuery) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica), 1000,
+                lagQuery);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private static String nodeServing(DataSource routing, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource)
+                .queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void sendsReadOnlyTransactionsToTheReplicaAndTheRestToThePrimary() {
+        ReadWriteRoutingDataSource routing = routing(null);
+
+        assertThat(nodeServing(routing, true)).isEqualTo("replica");
+        assertThat(nodeServing(routing, false)).isEqualTo("primary");
+    }
+
+    @Test
+    void keepsAReachableReplicaWithoutALagQueryForItsDatabase() {
+        ReadWriteRoutingDataSource routing = routing(null);
+
+        routing.checkReplicaLag();
+
+        assertThat(routing.getHealthyReplicas()).containsExactly("replica-0");
+        assertThat(nodeServing(routing, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhileTheReplicaLags() {
+        ReadWriteRoutingDataSource routing = routing("SELECT 5000");
+
+        routing.checkReplicaLag();
+
+        assertThat(routing.getHealthyReplicas()).isEmpty();
+        assertThat(nodeServing(routing, true)).isEqualTo("primary");
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhenTheLagQueryFails() {
+        ReadWriteRoutingDataSource routing = routing(ReadWriteRoutingDataSource.POSTGRES_LAG_QUERY);
+
+        routing.checkReplicaLag();
+
+        assertThat(routing.getHealthyReplicas()).isEmpty();
+        assertThat(nodeServing(routing, true)).isEqualTo("primary");
+    }
+
+    @Test
+    void routesToTheReplicaAgainOnceItCatchesUp() {
+        ReadWriteRoutingDataSource routing = routing("SELECT COALESCE(MAX(lag), 0) FROM replica_lag");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (lag BIGINT)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (5000)");
+        routing.checkReplicaLag();
+        assertThat(nodeServing(routing, true)).isEqualTo("primary");
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET lag = 10");
+        routing.checkReplicaLag();
+
+        assertThat(nodeServing(routing, true)).isEqualTo("replica");
+    }
+}
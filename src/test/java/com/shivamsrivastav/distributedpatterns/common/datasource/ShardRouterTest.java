@@ -0,0 +1,104 @@
+package com.shivamsrivastav.distributedpatterns.common.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+class ShardRouterTest {
+
+    private final List<DataSource> shards = List.of(database(), database());
+    private final ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(shards);
+    private final DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    private final JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    private final TransactionTemplate transaction = new TransactionTemplate(
+            new DataSourceTransactionManager(dataSource));
+    private final ShardRouter router;
+
+    ShardRouterTest() {
+        routingDataSource.afterPropertiesSet();
+        router = new ShardRouter(new StaticListableBeanFactory(Map.of("shards", routingDataSource))
+                .getBeanProvider(ShardRoutingDataSource.class));
+    }
+
+    private static DataSource database() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:shard-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(dataSource).execute("CREATE TABLE saga_orders (customer_id VARCHAR(32))");
+        return dataSource;
+    }
+
+    @AfterEach
+    void shutdown() {
+        router.shutdown();
+    }
+
+    private void placeOrder(String customerId) {
+        router.onShard(router.shardFor(customerId), () -> transaction.execute(
+                status -> jdbc.update("INSERT INTO saga_orders VALUES (?)", customerId)));
+    }
+
+    private static List<String> customersOn(DataSource shard) {
+        return new JdbcTemplate(shard).queryForList("SELECT customer_id FROM saga_orders", String.class);
+    }
+
+    @Test
+    void storesEachCustomersOrdersOnTheShardOfItsHash() {
+        List<String> customers = IntStream.range(0, 50).mapToObj(i -> "customer-" + i).toList();
+
+        customers.forEach(this::placeOrder);
+
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int expectedShard = shard;
+            assertThat(customersOn(shards.get(shard)))
+                    .isNotEmpty()
+                    .allSatisfy(customer -> assertThat(Math.floorMod(customer.hashCode(), 2))
+                            .isEqualTo(expectedShard));
+        }
+        assertThat(customersOn(shards.get(0)).size() + customersOn(shards.get(1)).size())
+                .isEqualTo(customers.size());
+        assertThat(ShardContext.current()).isNull();
+    }
+
+    @Test
+    void runsOnEveryShardAndReturnsTheResultsInShardOrder() {
+        IntStream.range(0, 20).mapToObj(i -> "customer-" + i).forEach(this::placeOrder);
+
+        List<Integer> counts = router.onEveryShard(shard -> transaction.execute(
+                status -> jdbc.queryForObject("SELECT COUNT(*) FROM saga_orders", Integer.class)));
+
+        assertThat(counts).containsExactly(customersOn(shards.get(0)).size(), customersOn(shards.get(1)).size());
+        assertThat(router.onEveryShard(shard -> ShardContext.current())).containsExactly(0, 1);
+    }
+
+    @Test
+    void gathersRowsFromEveryShard() {
+        List<String> customers = IntStream.range(0, 20).mapToObj(i -> "customer-" + i).toList();
+        customers.forEach(this::placeOrder);
+
+        List<String> gathered = router.gather(() -> transaction.execute(
+                status -> jdbc.queryForList("SELECT customer_id FROM saga_orders", String.class)));
+
+        assertThat(gathered).containsExactlyInAnyOrderElementsOf(customers);
+    }
+
+    @Test
+    void sendsWorkWithoutAShardToThePrimary() {
+        transaction.execute(status -> jdbc.update("INSERT INTO saga_orders VALUES (?)", "unsharded"));
+
+        assertThat(customersOn(shards.get(0))).containsExactly("unsharded");
+        assertThat(customersOn(shards.get(1))).isEmpty();
+    }
+}
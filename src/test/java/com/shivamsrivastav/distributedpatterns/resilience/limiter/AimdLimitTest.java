@@ -0,0 +1,41 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+import static com.shivamsrivastav.distributedpatterns.resilience.limiter.SimulatedDependency.MS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AimdLimitTest {
+
+    private static SimulatedDependency dependency(double initialLimit) {
+        return new SimulatedDependency(new AimdLimit(30 * MS, 0.9, 0.5), initialLimit, 1, 200);
+    }
+
+    @Test
+    void followsADependencyThatSlowsDownAndRecovers() {
+        SimulatedDependency dependency = dependency(10).capacity(20, 10 * MS);
+
+        double healthy = dependency.run(200);
+        assertThat(healthy).isBetween(50.0, 70.0);
+
+        double slowed = dependency.capacity(5, 10 * MS).run(200);
+        assertThat(slowed).isBetween(10.0, 16.0);
+
+        double recovered = dependency.capacity(20, 10 * MS).run(200);
+        assertThat(recovered).isGreaterThan(50.0);
+    }
+
+    @Test
+    void backsOffWhenMostCallsFailFast() {
+        SimulatedDependency dependency = dependency(40).capacity(100, 10 * MS);
+
+        assertThat(dependency.failing(0.6, MS).run(100)).isLessThan(8.0);
+    }
+
+    @Test
+    void toleratesAnErrorRateBelowTheThreshold() {
+        SimulatedDependency dependency = dependency(20).capacity(100, 10 * MS).failing(0.25, MS);
+
+        assertThat(dependency.run(50)).isGreaterThan(20.0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+import static com.shivamsrivastav.distributedpatterns.resilience.limiter.SimulatedDependency.MS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class GradientLimitTest {
+
+    private static SimulatedDependency dependency(double initialLimit) {
+        return new SimulatedDependency(new GradientLimit(1.5, 0.2, 10_000 * MS, 0.5), initialLimit, 1, 200);
+    }
+
+    @Test
+    void followsADependencyThatSlowsDownAndRecovers() {
+        SimulatedDependency dependency = dependency(10).capacity(20, 10 * MS);
+
+        double healthy = dependency.run(200);
+        assertThat(healthy).isBetween(20.0, 45.0);
+
+        double slowed = dependency.capacity(5, 10 * MS).run(200);
+        assertThat(slowed).isLessThan(healthy / 2).isBetween(5.0, 12.0);
+
+        double recovered = dependency.capacity(20, 10 * MS).run(400);
+        assertThat(recovered).isGreaterThan(20.0);
+    }
+
+    @Test
+    void backsOffWhenMostCallsFailFast() {
+        SimulatedDependency dependency = dependency(40).capacity(100, 10 * MS);
+
+        // Failing after 1ms, latency alone would look better than ever
+        assertThat(dependency.failing(0.6, MS).run(100)).isLessThan(8.0);
+    }
+
+    @Test
+    void fastFailuresBelowTheThresholdDoNotLowerTheBaseline() {
+        SimulatedDependency dependency = dependency(20).capacity(100, 10 * MS).failing(0.25, MS);
+
+        // A 1ms failure taken as a latency sample would halve the limit every round trip
+        assertThat(dependency.run(100)).isGreaterThan(20.0);
+    }
+}
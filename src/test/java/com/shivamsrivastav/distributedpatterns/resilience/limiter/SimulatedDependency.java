@@ -0,0 +1,68 @@
+package com.shivamsrivastav.distributedpatterns.resilience.limiter;
+
+/**
+ * Closed-loop model of a dependency driven through a {@link LimitAlgorithm} in
+ * virtual time: each round keeps the limiter full, and every call in it takes
+ * {@code baseRtt * max(1, inFlight / capacity)}, i.e. work beyond the
+ * dependency's capacity queues.
+ */
+class SimulatedDependency {
+
+    static final long MS = 1_000_000L;
+
+    private final LimitAlgorithm algorithm;
+    private final double minLimit;
+    private final double maxLimit;
+
+    private long now;
+    private double limit;
+    private int capacity;
+    private long baseRttNanos;
+    private long failedRttNanos = MS;
+    private double errorRate;
+    private double errorDebt;
+
+    SimulatedDependency(LimitAlgorithm algorithm, double initialLimit, double minLimit, double maxLimit) {
+        this.algorithm = algorithm;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    SimulatedDependency capacity(int capacity, long baseRttNanos) {
+        this.capacity = capacity;
+        this.baseRttNanos = baseRttNanos;
+        return this;
+    }
+
+    /**
+     * Fails {@code errorRate} of the calls, evenly spread, after {@code rttNanos}.
+     */
+    SimulatedDependency failing(double errorRate, long rttNanos) {
+        this.errorRate = errorRate;
+        this.failedRttNanos = rttNanos;
+        return this;
+    }
+
+    /**
+     * Runs {@code rounds} round trips and returns the limit after them.
+     */
+    double run(int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int inFlight = (int) limit;
+            long rtt = (long) (baseRttNanos * Math.max(1.0, (double) inFlight / capacity));
+            now += rtt;
+            for (int i = 0; i < inFlight; i++) {
+                errorDebt += errorRate;
+                boolean failed = errorDebt >= 1;
+                if (failed) {
+                    errorDebt -= 1;
+                }
+                LimitAlgorithm.Outcome outcome = failed ? LimitAlgorithm.Outcome.FAILED : LimitAlgorithm.Outcome.SUCCESS;
+                double next = algorithm.update(limit, now, failed ? failedRttNanos : rtt, inFlight, outcome);
+                limit = Math.max(minLimit, Math.min(maxLimit, next));
+            }
+        }
+        return limit;
+    }
+}